@@ -0,0 +1,110 @@
+/*
+ * Licensed to the Indoqa Software Design und Beratung GmbH (Indoqa) under
+ * one or more contributor license agreements. See the NOTICE file distributed
+ * with this work for additional information regarding copyright ownership.
+ * Indoqa licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.indoqa.cycle.plugin.benchmark;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.*;
+
+/**
+ * Writes minimal but valid class files: a public class extending {@link Object} with one field for each dependency.
+ */
+public final class ClassFileWriter {
+
+    private static final int MAGIC = 0xCAFEBABE;
+    private static final int JAVA_8 = 52;
+
+    private static final int CONSTANT_UTF8 = 1;
+    private static final int CONSTANT_CLASS = 7;
+
+    private static final int ACC_PUBLIC_SUPER = 0x0021;
+    private static final int ACC_PRIVATE = 0x0002;
+
+    private ClassFileWriter() {
+        // hide utility class constructor
+    }
+
+    public static byte[] write(String className, Collection<String> dependencies) throws IOException {
+        List<Object> constants = new ArrayList<>();
+        Map<String, Integer> utf8Indexes = new HashMap<>();
+
+        int thisClass = addClass(constants, utf8Indexes, className);
+        int superClass = addClass(constants, utf8Indexes, "java.lang.Object");
+
+        List<int[]> fields = new ArrayList<>();
+        int fieldIndex = 0;
+        for (String eachDependency : new TreeSet<>(dependencies)) {
+            int name = addUtf8(constants, utf8Indexes, "field" + fieldIndex++);
+            int descriptor = addUtf8(constants, utf8Indexes, "L" + toInternalName(eachDependency) + ";");
+            fields.add(new int[] {name, descriptor});
+        }
+
+        ByteArrayOutputStream result = new ByteArrayOutputStream();
+        try (DataOutputStream output = new DataOutputStream(result)) {
+            output.writeInt(MAGIC);
+            output.writeShort(0);
+            output.writeShort(JAVA_8);
+
+            output.writeShort(constants.size() + 1);
+            for (Object eachConstant : constants) {
+                if (eachConstant instanceof Integer nameIndex) {
+                    output.writeByte(CONSTANT_CLASS);
+                    output.writeShort(nameIndex);
+                } else {
+                    output.writeByte(CONSTANT_UTF8);
+                    output.writeUTF((String) eachConstant);
+                }
+            }
+
+            output.writeShort(ACC_PUBLIC_SUPER);
+            output.writeShort(thisClass);
+            output.writeShort(superClass);
+            output.writeShort(0);
+
+            output.writeShort(fields.size());
+            for (int[] eachField : fields) {
+                output.writeShort(ACC_PRIVATE);
+                output.writeShort(eachField[0]);
+                output.writeShort(eachField[1]);
+                output.writeShort(0);
+            }
+
+            output.writeShort(0);
+            output.writeShort(0);
+        }
+
+        return result.toByteArray();
+    }
+
+    private static int addClass(List<Object> constants, Map<String, Integer> utf8Indexes, String className) {
+        int name = addUtf8(constants, utf8Indexes, toInternalName(className));
+        constants.add(name);
+        return constants.size();
+    }
+
+    private static int addUtf8(List<Object> constants, Map<String, Integer> utf8Indexes, String value) {
+        return utf8Indexes.computeIfAbsent(value, key -> {
+            constants.add(key);
+            return constants.size();
+        });
+    }
+
+    private static String toInternalName(String className) {
+        return className.replace('.', '/');
+    }
+}
@@ -0,0 +1,148 @@
+/*
+ * Licensed to the Indoqa Software Design und Beratung GmbH (Indoqa) under
+ * one or more contributor license agreements. See the NOTICE file distributed
+ * with this work for additional information regarding copyright ownership.
+ * Indoqa licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.indoqa.cycle.plugin.benchmark;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import org.openjdk.jmh.annotations.*;
+
+import com.indoqa.cycle.plugin.*;
+
+/**
+ * Measures the stages of the analysis separately: importing the class files, building the package graph, detecting
+ * cycles, removing redundant cycles and writing the cycle file.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CycleDetectionBenchmark {
+
+    @Param({"LAYERED", "RANDOM_DENSE", "SMALL_COMPONENTS", "GIANT_COMPONENT"})
+    private GraphShape shape;
+
+    @Param({"100", "1000", "10000", "50000"})
+    private int classCount;
+
+    private Path directory;
+    private List<File> classFiles;
+    private List<ClassDependencies> classDependencies;
+    private CycleDetector cycleDetector;
+    private List<List<Cycle>> enumeratedCycles;
+    private List<Cycle> uniqueCycles;
+
+    /**
+     * @return The cycles of each strongly connected component as they are enumerated, before redundant cycles are removed.
+     */
+    private static List<List<Cycle>> enumerateCycles(List<ClassDependencies> classDependencies) {
+        PackageGraph.Builder builder = new PackageGraph.Builder();
+        for (ClassDependencies eachClassDependencies : classDependencies) {
+            for (String eachDependency : eachClassDependencies.getDependencies()) {
+                builder.addEdge(eachClassDependencies.getPackageName(), ClassDependencies.getPackageName(eachDependency));
+            }
+        }
+        PackageGraph graph = builder.build();
+
+        List<List<Cycle>> result = new ArrayList<>();
+        CycleFinder cycleFinder = CycleBudget.DEFAULT.getStrategy().createFinder(graph);
+        for (int[] eachComponent : StronglyConnectedComponents.find(graph)) {
+            if (eachComponent.length < 2) {
+                continue;
+            }
+
+            List<Cycle> cycles = new ArrayList<>();
+            for (int[] eachCycle : cycleFinder.find(eachComponent, CycleBudget.DEFAULT.getMaxCyclesPerComponent(), Integer.MAX_VALUE, 0)) {
+                Cycle cycle = new Cycle();
+                for (int eachNode : eachCycle) {
+                    cycle.addInvolvedPackage(graph.getName(eachNode));
+                }
+                cycle.addInvolvedPackage(graph.getName(eachCycle[0]));
+                cycles.add(cycle);
+            }
+            result.add(cycles);
+        }
+
+        return result;
+    }
+
+    private static void delete(Path path) throws IOException {
+        try (Stream<Path> paths = Files.walk(path)) {
+            for (Path eachPath : paths.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(eachPath);
+            }
+        }
+    }
+
+    @Benchmark
+    public CycleDetector buildGraph() {
+        return new CycleDetector(this.classDependencies, null);
+    }
+
+    @Benchmark
+    public List<Cycle> detectCycles() {
+        return this.cycleDetector.getPackageCycles();
+    }
+
+    @Benchmark
+    public Map<File, ClassDependencies> importClassFiles() throws IOException {
+        return new ClassFileScanner().importClassFiles(this.classFiles);
+    }
+
+    @Benchmark
+    public List<Cycle> removeRedundantCycles() {
+        List<Cycle> result = new ArrayList<>();
+
+        for (List<Cycle> eachComponentCycles : this.enumeratedCycles) {
+            result.addAll(RedundantCycles.remove(new ArrayList<>(eachComponentCycles)));
+        }
+
+        return result;
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        this.directory = Files.createTempDirectory("cycle-benchmark");
+        SyntheticClassFiles.generate(this.directory.resolve("classes"), this.shape, this.classCount, 42);
+
+        this.classFiles = ClassFiles.find(this.directory.resolve("classes").toFile());
+        this.classDependencies = new ArrayList<>(new ClassFileScanner().importClassFiles(this.classFiles).values());
+        this.cycleDetector = new CycleDetector(this.classDependencies, null);
+        this.enumeratedCycles = enumerateCycles(this.classDependencies);
+        this.uniqueCycles = this.cycleDetector.getPackageCycles();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        delete(this.directory);
+    }
+
+    @Benchmark
+    public void writeCycleFile() throws IOException {
+        this.cycleDetector.writeCycleFile(this.uniqueCycles, this.directory.resolve("cycles.txt"));
+    }
+}
@@ -0,0 +1,91 @@
+/*
+ * Licensed to the Indoqa Software Design und Beratung GmbH (Indoqa) under
+ * one or more contributor license agreements. See the NOTICE file distributed
+ * with this work for additional information regarding copyright ownership.
+ * Indoqa licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.indoqa.cycle.plugin.benchmark;
+
+import java.util.Random;
+
+public enum GraphShape {
+
+    /**
+     * Packages are arranged in ten layers and only depend on lower layers, so there are no cycles.
+     */
+    LAYERED {
+
+        @Override
+        public int getTargetPackage(int sourcePackage, int packageCount, int dependencyIndex, Random random) {
+            int layerSize = Math.max(1, packageCount / LAYER_COUNT);
+            int lowerPackages = sourcePackage / layerSize * layerSize;
+            if (lowerPackages == 0) {
+                return sourcePackage;
+            }
+
+            return random.nextInt(lowerPackages);
+        }
+    },
+
+    /**
+     * Each dependency points to a random package.
+     */
+    RANDOM_DENSE {
+
+        @Override
+        public int getTargetPackage(int sourcePackage, int packageCount, int dependencyIndex, Random random) {
+            return random.nextInt(packageCount);
+        }
+    },
+
+    /**
+     * Groups of four packages form a ring each, the groups only depend on lower groups.
+     */
+    SMALL_COMPONENTS {
+
+        @Override
+        public int getTargetPackage(int sourcePackage, int packageCount, int dependencyIndex, Random random) {
+            int groupStart = sourcePackage / GROUP_SIZE * GROUP_SIZE;
+            if (dependencyIndex == 0) {
+                int groupSize = Math.min(GROUP_SIZE, packageCount - groupStart);
+                return groupStart + (sourcePackage - groupStart + 1) % groupSize;
+            }
+
+            if (groupStart == 0) {
+                return sourcePackage;
+            }
+
+            return random.nextInt(groupStart);
+        }
+    },
+
+    /**
+     * All packages form a ring with additional random dependencies, resulting in one strongly connected component.
+     */
+    GIANT_COMPONENT {
+
+        @Override
+        public int getTargetPackage(int sourcePackage, int packageCount, int dependencyIndex, Random random) {
+            if (dependencyIndex == 0) {
+                return (sourcePackage + 1) % packageCount;
+            }
+
+            return random.nextInt(packageCount);
+        }
+    };
+
+    private static final int LAYER_COUNT = 10;
+    private static final int GROUP_SIZE = 4;
+
+    public abstract int getTargetPackage(int sourcePackage, int packageCount, int dependencyIndex, Random random);
+}
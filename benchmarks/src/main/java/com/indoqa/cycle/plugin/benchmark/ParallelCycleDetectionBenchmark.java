@@ -0,0 +1,92 @@
+/*
+ * Licensed to the Indoqa Software Design und Beratung GmbH (Indoqa) under
+ * one or more contributor license agreements. See the NOTICE file distributed
+ * with this work for additional information regarding copyright ownership.
+ * Indoqa licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.indoqa.cycle.plugin.benchmark;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import org.openjdk.jmh.annotations.*;
+
+import com.indoqa.cycle.plugin.*;
+
+/**
+ * Measures the cycle detection including the lookup of the involved classes for the reports with different numbers of
+ * threads.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ParallelCycleDetectionBenchmark {
+
+    @Param({"RANDOM_DENSE", "SMALL_COMPONENTS", "GIANT_COMPONENT"})
+    private GraphShape shape;
+
+    @Param({"10000", "50000"})
+    private int classCount;
+
+    @Param({"1", "2", "4"})
+    private int threads;
+
+    private Path directory;
+    private ForkJoinPool pool;
+    private CycleDetector cycleDetector;
+
+    private static void delete(Path path) throws IOException {
+        try (Stream<Path> paths = Files.walk(path)) {
+            for (Path eachPath : paths.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(eachPath);
+            }
+        }
+    }
+
+    @Benchmark
+    public int findPackageCycles() throws IOException {
+        int[] result = new int[1];
+        this.cycleDetector.findPackageCycles(CycleBudget.DEFAULT, new CycleMetrics(),
+            (cycle, reportingCycleDetector) -> result[0] += reportingCycleDetector.getInvolvedClasses(cycle).size());
+        return result[0];
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        this.directory = Files.createTempDirectory("cycle-benchmark");
+        SyntheticClassFiles.generate(this.directory.resolve("classes"), this.shape, this.classCount, 42);
+
+        List<File> classFiles = ClassFiles.find(this.directory.resolve("classes").toFile());
+        List<ClassDependencies> classDependencies = new ArrayList<>(new ClassFileScanner().importClassFiles(classFiles).values());
+        this.pool = new ForkJoinPool(this.threads);
+        this.cycleDetector = new CycleDetector(classDependencies, null);
+        this.cycleDetector.setPool(this.pool);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        this.pool.shutdown();
+        delete(this.directory);
+    }
+}
@@ -0,0 +1,61 @@
+/*
+ * Licensed to the Indoqa Software Design und Beratung GmbH (Indoqa) under
+ * one or more contributor license agreements. See the NOTICE file distributed
+ * with this work for additional information regarding copyright ownership.
+ * Indoqa licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.indoqa.cycle.plugin.benchmark;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+
+/**
+ * Generates a tree of class files whose package dependencies follow a {@link GraphShape}.
+ */
+public final class SyntheticClassFiles {
+
+    private static final int CLASSES_PER_PACKAGE = 20;
+    private static final int DEPENDENCIES_PER_CLASS = 5;
+
+    private SyntheticClassFiles() {
+        // hide utility class constructor
+    }
+
+    public static void generate(Path directory, GraphShape shape, int classCount, long seed) throws IOException {
+        Random random = new Random(seed);
+        int packageCount = Math.max(2, classCount / CLASSES_PER_PACKAGE);
+
+        for (int i = 0; i < classCount; i++) {
+            int sourcePackage = i % packageCount;
+
+            Set<String> dependencies = new TreeSet<>();
+            for (int j = 0; j < DEPENDENCIES_PER_CLASS; j++) {
+                int targetPackage = shape.getTargetPackage(sourcePackage, packageCount, j, random);
+                int classesInPackage = (classCount - targetPackage + packageCount - 1) / packageCount;
+                int targetClass = targetPackage + random.nextInt(Math.max(1, classesInPackage)) * packageCount;
+                dependencies.add(getClassName(targetClass, packageCount));
+            }
+
+            String className = getClassName(i, packageCount);
+            Path classFile = directory.resolve(className.replace('.', '/') + ".class");
+            Files.createDirectories(classFile.getParent());
+            Files.write(classFile, ClassFileWriter.write(className, dependencies));
+        }
+    }
+
+    private static String getClassName(int index, int packageCount) {
+        return String.format("bench.p%05d.C%06d", index % packageCount, index);
+    }
+}
@@ -0,0 +1,399 @@
+/*
+ * Licensed to the Indoqa Software Design und Beratung GmbH (Indoqa) under
+ * one or more contributor license agreements. See the NOTICE file distributed
+ * with this work for additional information regarding copyright ownership.
+ * Indoqa licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.indoqa.cycle.plugin;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.apache.maven.plugin.AbstractMojo;
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugin.descriptor.PluginDescriptor;
+import org.apache.maven.plugins.annotations.Parameter;
+import org.apache.maven.project.MavenProject;
+
+import com.indoqa.cycle.plugin.CycleSearchResult.IncompleteComponent;
+
+public abstract class AbstractCycleMojo extends AbstractMojo {
+
+    private static final String SYSTEM_PROPERTY_SKIP = "skipCycles";
+
+    private static final String[] RELEVANT_PACKAGINGS = {"jar", "war", "bundle"};
+
+    @Parameter(property = "excludedPackages")
+    protected String[] excludedPackages;
+
+    @Parameter(defaultValue = "false", property = "skip", required = false)
+    protected boolean skip;
+
+    @Parameter(defaultValue = "true", property = "cycleCache", required = false)
+    protected boolean useCache;
+
+    @Parameter(defaultValue = ClassFileScanner.NAME, property = "cycleImporter", required = false)
+    protected String importer;
+
+    @Parameter(defaultValue = "1C", property = "cycleThreads", required = false)
+    protected String threads;
+
+    @Parameter(defaultValue = "false", property = "cycleMetrics", required = false)
+    protected boolean logMetrics;
+
+    @Parameter(defaultValue = "shortest", property = "cycleStrategy", required = false)
+    protected String strategy;
+
+    @Parameter(defaultValue = "false", property = "cycleFailFast", required = false)
+    protected boolean failFast;
+
+    @Parameter(defaultValue = "0", property = "cycleMaxLength", required = false)
+    protected int maxCycleLength;
+
+    @Parameter(defaultValue = "" + CycleBudget.DEFAULT_MAX_CYCLES_PER_COMPONENT, property = "cycleMaxPerComponent", required = false)
+    protected int maxCyclesPerComponent;
+
+    @Parameter(defaultValue = "0", property = "cycleTimeout", required = false)
+    protected long timeoutSeconds;
+
+    @Parameter(defaultValue = "text", property = "cycleReportFormats", required = false)
+    protected String[] reportFormats;
+
+    @Parameter(defaultValue = "10", property = "cycleSummaryLimit", required = false)
+    protected int summaryLimit;
+
+    @Parameter(property = "cycleBaseline", required = false)
+    protected File baselineFile;
+
+    @Parameter(defaultValue = "false", property = "cycleUpdateBaseline", required = false)
+    protected boolean updateBaseline;
+
+    @Parameter(defaultValue = "package", property = "cycleGranularity", required = false)
+    protected String granularity;
+
+    @Parameter(required = false)
+    protected List<Layer> layers;
+
+    @Parameter(defaultValue = "all", property = "cycleDependencyKinds", required = false)
+    protected String[] dependencyKinds;
+
+    @Parameter(defaultValue = "false", property = "cycleInProcessCache", required = false)
+    protected boolean useInProcessCache;
+
+    @Parameter(defaultValue = "1000000", property = "cycleInProcessCacheClasses", required = false)
+    protected int inProcessCacheClasses;
+
+    @Parameter(defaultValue = "true", property = "cycleSuggestCuts", required = false)
+    protected boolean suggestCuts;
+
+    @Parameter(defaultValue = "false", property = "cycleLowMemory", required = false)
+    protected boolean lowMemory;
+
+    @Parameter(defaultValue = "${plugin}", readonly = true)
+    protected PluginDescriptor pluginDescriptor;
+
+    protected static File getCacheFile(File targetDirectory) {
+        return new File(targetDirectory, "cycle-maven-plugin/dependencies.cache");
+    }
+
+    protected static File getInputDigestFile(File targetDirectory, String goal) {
+        return new File(targetDirectory, "cycle-maven-plugin/" + goal + ".digest");
+    }
+
+    protected static boolean isRelevant(MavenProject project) {
+        for (String eachRelevantPackaging : RELEVANT_PACKAGINGS) {
+            if (project.getPackaging().equals(eachRelevantPackaging)) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    protected void completeBaseline(CycleBaseline baseline, CycleSearchResult searchResult) throws IOException {
+        if (baseline == null) {
+            return;
+        }
+
+        if (baseline.isRecording()) {
+            baseline.write(this.baselineFile.toPath());
+            this.getLog().info("Wrote " + baseline.getCycleCount() + " package cycles to the baseline " + this.baselineFile.getAbsolutePath() + ".");
+            return;
+        }
+
+        if (baseline.getMatchedCount() > 0) {
+            this.getLog().info("Ignored " + baseline.getMatchedCount() + " package cycles of the baseline.");
+        }
+
+        Set<String> resolvedCycles = baseline.getResolvedCycles();
+        if (resolvedCycles.isEmpty() || !searchResult.isComplete()) {
+            return;
+        }
+
+        this.getLog().warn(
+            resolvedCycles.size() + " package cycles of the baseline " + this.baselineFile.getAbsolutePath()
+                + " do not exist anymore. Remove them or run with -DcycleUpdateBaseline=true:");
+        for (String eachResolvedCycle : resolvedCycles) {
+            this.getLog().warn("    " + eachResolvedCycle);
+        }
+    }
+
+    protected CycleBudget createBudget() throws MojoExecutionException {
+        CycleStrategy cycleStrategy = CycleStrategy.get(this.strategy);
+        if (cycleStrategy == null) {
+            throw new MojoExecutionException("Unknown cycle strategy '" + this.strategy + "'. Use '" + CycleStrategy.SHORTEST.getName() + "' or '"
+                + CycleStrategy.ALL.getName() + "'.");
+        }
+
+        return new CycleBudget(cycleStrategy, this.failFast, this.maxCycleLength, this.maxCyclesPerComponent,
+            TimeUnit.SECONDS.toMillis(this.timeoutSeconds));
+    }
+
+    /**
+     * @return An index that must be closed once the cycle detectors using it are done.
+     */
+    protected ClassConnectionIndex createClassConnectionIndex(File targetDirectory) throws MojoExecutionException {
+        if (!this.lowMemory) {
+            return new HeapClassConnectionIndex();
+        }
+
+        Path directory = targetDirectory.toPath().resolve("cycle-maven-plugin");
+        try {
+            return new MappedClassConnectionIndex(directory);
+        } catch (IOException e) {
+            throw new MojoExecutionException("Failed to create the class connection files in " + directory, e);
+        }
+    }
+
+    protected int createDependencyKinds() throws MojoExecutionException {
+        try {
+            return DependencyKind.parse(this.dependencyKinds);
+        } catch (IllegalArgumentException e) {
+            throw new MojoExecutionException(e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Creates a digest of the configuration that determines the result of an analysis.
+     */
+    protected InputDigest createInputDigest() throws IOException {
+        InputDigest result = new InputDigest();
+
+        result.add("plugin", this.pluginDescriptor == null ? null : this.pluginDescriptor.getVersion());
+        result.add("excludedPackages", this.excludedPackages);
+        result.add("importer", this.importer);
+        result.add("granularity", this.granularity);
+        result.add("dependencyKinds", this.dependencyKinds);
+        if (this.layers != null) {
+            for (Layer eachLayer : this.layers) {
+                result.add("layer:" + eachLayer.getName(), eachLayer.getPackages());
+            }
+        }
+        result.add("strategy", this.strategy);
+        result.add("failFast", this.failFast);
+        result.add("maxCycleLength", this.maxCycleLength);
+        result.add("maxCyclesPerComponent", this.maxCyclesPerComponent);
+        result.add("timeout", this.timeoutSeconds);
+        result.add("reportFormats", this.reportFormats);
+        result.add("suggestCuts", this.suggestCuts);
+        result.addContent("baseline", this.baselineFile);
+
+        return result;
+    }
+
+    protected Granularity createGranularity() throws MojoExecutionException {
+        Map<String, String[]> packagesByLayer = new LinkedHashMap<>();
+        if (this.layers != null) {
+            for (Layer eachLayer : this.layers) {
+                packagesByLayer.put(eachLayer.getName(), eachLayer.getPackages());
+            }
+        }
+
+        try {
+            return Granularity.parse(this.granularity, packagesByLayer);
+        } catch (IllegalArgumentException e) {
+            throw new MojoExecutionException(e.getMessage(), e);
+        }
+    }
+
+    protected ClassDependencyImporter createImporter(ForkJoinPool pool) throws MojoExecutionException {
+        switch (this.importer) {
+            case ClassFileScanner.NAME:
+                return new ClassFileScanner(pool);
+
+            case ArchUnitImporter.NAME:
+                return new ArchUnitImporter();
+
+            default:
+                throw new MojoExecutionException(
+                    "Unknown importer '" + this.importer + "'. Use '" + ClassFileScanner.NAME + "' or '" + ArchUnitImporter.NAME + "'.");
+        }
+    }
+
+    protected ForkJoinPool createPool() throws MojoExecutionException {
+        return new ForkJoinPool(this.getThreadCount());
+    }
+
+    protected CycleReporter createReporter(File targetDirectory, String baseName, CycleSummary summary) throws MojoExecutionException, IOException {
+        List<ReportFormat> formats = new ArrayList<>();
+        for (String eachReportFormat : this.reportFormats) {
+            ReportFormat reportFormat = ReportFormat.get(eachReportFormat);
+            if (reportFormat == null) {
+                throw new MojoExecutionException("Unknown report format '" + eachReportFormat + "'. Use one of "
+                    + Stream.of(ReportFormat.values()).map(ReportFormat::getName).collect(Collectors.joining(", ")) + ".");
+            }
+            formats.add(reportFormat);
+        }
+
+        CompositeCycleReporter result = new CompositeCycleReporter();
+        result.add(summary);
+
+        try {
+            for (ReportFormat eachFormat : formats) {
+                Path reportFile = targetDirectory.toPath().resolve(eachFormat.getFileName(baseName));
+                result.add(eachFormat.createReporter(reportFile));
+                summary.addReportFile(reportFile);
+            }
+        } catch (IOException e) {
+            result.close();
+            throw e;
+        }
+
+        return result;
+    }
+
+    protected boolean isSkipped() {
+        if (this.skip || System.getProperties().containsKey(SYSTEM_PROPERTY_SKIP)) {
+            this.getLog().info("Package cycle test is skipped.");
+            return true;
+        }
+
+        return false;
+    }
+
+    protected CycleBaseline loadBaseline() throws MojoExecutionException {
+        if (this.updateBaseline) {
+            if (this.baselineFile == null) {
+                throw new MojoExecutionException("Set 'cycleBaseline' to the baseline file that should be updated.");
+            }
+
+            return CycleBaseline.record();
+        }
+
+        if (this.baselineFile == null) {
+            return null;
+        }
+
+        if (!this.baselineFile.exists()) {
+            this.getLog().warn("The cycle baseline " + this.baselineFile.getAbsolutePath() + " does not exist.");
+            return null;
+        }
+
+        try {
+            return CycleBaseline.load(this.baselineFile.toPath());
+        } catch (IOException e) {
+            throw new MojoExecutionException("Failed to read the cycle baseline " + this.baselineFile.getAbsolutePath(), e);
+        }
+    }
+
+    protected DependencyCache loadDependencyCache(File targetDirectory, ClassDependencyImporter classDependencyImporter, ForkJoinPool pool) {
+        if (!this.useCache) {
+            return new DependencyCache(classDependencyImporter, pool);
+        }
+
+        File cacheFile = getCacheFile(targetDirectory);
+        if (this.useInProcessCache) {
+            DependencyCache dependencyCache = InProcessCache.get(cacheFile.getAbsolutePath(), classDependencyImporter, pool);
+            if (dependencyCache != null) {
+                return dependencyCache;
+            }
+        }
+
+        return DependencyCache.load(cacheFile, classDependencyImporter, pool);
+    }
+
+    protected void logIncompleteComponents(CycleSearchResult searchResult) {
+        for (IncompleteComponent eachIncompleteComponent : searchResult.getIncompleteComponents()) {
+            this.getLog().warn("Detected " + eachIncompleteComponent + ".");
+        }
+    }
+
+    protected void saveDependencyCache(File targetDirectory, DependencyCache dependencyCache) throws IOException {
+        if (!this.useCache) {
+            return;
+        }
+
+        File cacheFile = getCacheFile(targetDirectory);
+        if (dependencyCache.isModified() || !cacheFile.isFile()) {
+            dependencyCache.save(cacheFile);
+        }
+
+        // in low memory mode the cache is not kept beyond the analysis
+        if (this.useInProcessCache && !this.lowMemory) {
+            InProcessCache.put(cacheFile.getAbsolutePath(), dependencyCache, this.inProcessCacheClasses);
+        }
+    }
+
+    /**
+     * Logs the cheapest package dependencies to remove for each strongly connected component and writes them with the
+     * involved classes to <code>baseName.txt</code>.
+     */
+    protected void suggestCuts(CycleDetector cycleDetector, File targetDirectory, String baseName, CycleMetrics metrics) throws IOException {
+        if (!this.suggestCuts || this.failFast) {
+            return;
+        }
+
+        List<CycleCut> cuts = metrics.time("suggestCuts", cycleDetector::suggestCuts);
+        if (cuts.isEmpty()) {
+            return;
+        }
+
+        Path cutFile = targetDirectory.toPath().resolve(baseName + ".txt");
+        cycleDetector.writeCutFile(cuts, cutFile);
+
+        for (CycleCut eachCut : cuts) {
+            this.getLog().warn("The " + eachCut + ":");
+            List<CycleCut.Dependency> dependencies = eachCut.getDependencies();
+            for (CycleCut.Dependency eachDependency : dependencies.subList(0, Math.min(this.summaryLimit, dependencies.size()))) {
+                this.getLog().warn("    " + eachDependency);
+            }
+            if (dependencies.size() > this.summaryLimit) {
+                this.getLog().warn("    ... and " + (dependencies.size() - this.summaryLimit) + " more.");
+            }
+        }
+        this.getLog().warn("See " + cutFile.toAbsolutePath() + " for the involved classes.");
+    }
+
+    private int getThreadCount() throws MojoExecutionException {
+        try {
+            if (this.threads.endsWith("C")) {
+                float factor = Float.parseFloat(this.threads.substring(0, this.threads.length() - 1));
+                return Math.max(1, (int) (factor * Runtime.getRuntime().availableProcessors()));
+            }
+
+            return Math.max(1, Integer.parseInt(this.threads));
+        } catch (NumberFormatException e) {
+            throw new MojoExecutionException("Invalid thread count '" + this.threads + "'. Use a number like '4' or a factor like '1.5C'.", e);
+        }
+    }
+}
@@ -0,0 +1,64 @@
+/*
+ * Licensed to the Indoqa Software Design und Beratung GmbH (Indoqa) under
+ * one or more contributor license agreements. See the NOTICE file distributed
+ * with this work for additional information regarding copyright ownership.
+ * Indoqa licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.indoqa.cycle.plugin;
+
+import java.io.File;
+import java.nio.file.Paths;
+import java.util.*;
+
+import com.tngtech.archunit.core.domain.Dependency;
+import com.tngtech.archunit.core.domain.JavaClass;
+import com.tngtech.archunit.core.domain.JavaClasses;
+import com.tngtech.archunit.core.importer.ClassFileImporter;
+import com.tngtech.archunit.core.importer.ImportOption.Predefined;
+
+public class ArchUnitImporter implements ClassDependencyImporter {
+
+    public static final String NAME = "archunit";
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public Map<File, ClassDependencies> importClassFiles(Collection<File> classFiles) {
+        Map<File, ClassDependencies> result = new HashMap<>();
+        if (classFiles.isEmpty()) {
+            return result;
+        }
+
+        List<java.nio.file.Path> paths = classFiles.stream().map(File::toPath).toList();
+        JavaClasses javaClasses = new ClassFileImporter(Arrays.asList(Predefined.DO_NOT_INCLUDE_ARCHIVES)).importPaths(paths);
+
+        for (JavaClass eachJavaClass : javaClasses) {
+            if (!eachJavaClass.getSource().isPresent()) {
+                continue;
+            }
+
+            Set<String> dependencies = new HashSet<>();
+            for (Dependency eachDependency : eachJavaClass.getDirectDependenciesFromSelf()) {
+                dependencies.add(eachDependency.getTargetClass().getBaseComponentType().getName());
+            }
+
+            File classFile = Paths.get(eachJavaClass.getSource().get().getUri()).toAbsolutePath().normalize().toFile();
+            result.put(classFile, new ClassDependencies(eachJavaClass.getName(), dependencies));
+        }
+
+        return result;
+    }
+}
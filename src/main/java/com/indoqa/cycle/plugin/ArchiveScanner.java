@@ -0,0 +1,280 @@
+/*
+ * Licensed to the Indoqa Software Design und Beratung GmbH (Indoqa) under
+ * one or more contributor license agreements. See the NOTICE file distributed
+ * with this work for additional information regarding copyright ownership.
+ * Indoqa licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.indoqa.cycle.plugin;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ForkJoinPool;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+/**
+ * Reads the class files of a JAR without extracting it. The central directory and each entry are read with positional
+ * reads of a file channel into heap buffers, so the archive is not locked after the scan. Stored entries are parsed
+ * directly, deflated entries are inflated. Entries are read and parsed in parallel.
+ */
+public final class ArchiveScanner {
+
+    private static final int END_OF_CENTRAL_DIRECTORY = 0x06054b50;
+    private static final int END_OF_CENTRAL_DIRECTORY_SIZE = 22;
+    private static final int ZIP64_END_OF_CENTRAL_DIRECTORY = 0x06064b50;
+    private static final int ZIP64_END_OF_CENTRAL_DIRECTORY_SIZE = 56;
+    private static final int ZIP64_LOCATOR = 0x07064b50;
+    private static final int ZIP64_LOCATOR_SIZE = 20;
+    private static final int ZIP64_EXTRA_FIELD = 0x0001;
+    private static final int CENTRAL_DIRECTORY_ENTRY = 0x02014b50;
+    private static final int LOCAL_FILE_HEADER = 0x04034b50;
+    private static final int LOCAL_FILE_HEADER_SIZE = 30;
+    private static final int MAX_COMMENT_LENGTH = 0xFFFF;
+
+    private static final int STORED = 0;
+    private static final int DEFLATED = 8;
+
+    private static final String CLASS_FILE_EXTENSION = ".class";
+    private static final String VERSIONED_CLASSES = "META-INF/versions/";
+
+    private ArchiveScanner() {
+        // hide utility class constructor
+    }
+
+    public static List<ClassDependencies> scan(File archive, ForkJoinPool pool) throws IOException {
+        try (FileChannel channel = FileChannel.open(archive.toPath(), StandardOpenOption.READ)) {
+            List<Entry> entries = readCentralDirectory(channel, archive);
+
+            List<ClassDependencies> result = new ArrayList<>(entries.size());
+            try {
+                pool.submit(() -> entries.parallelStream().map(entry -> {
+                    try {
+                        return parse(channel, entry, archive);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                }).filter(Objects::nonNull).forEachOrdered(result::add)).join();
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+
+            return result;
+        }
+    }
+
+    private static int findEndOfCentralDirectory(ByteBuffer buffer) {
+        int lowest = Math.max(0, buffer.limit() - END_OF_CENTRAL_DIRECTORY_SIZE - MAX_COMMENT_LENGTH);
+
+        for (int offset = buffer.limit() - END_OF_CENTRAL_DIRECTORY_SIZE; offset >= lowest; offset--) {
+            if (buffer.getInt(offset) == END_OF_CENTRAL_DIRECTORY) {
+                return offset;
+            }
+        }
+
+        return -1;
+    }
+
+    private static ByteBuffer getData(FileChannel channel, Entry entry, File archive) throws IOException {
+        ByteBuffer localHeader = read(channel, entry.localHeaderOffset, LOCAL_FILE_HEADER_SIZE, archive);
+        if (localHeader.getInt(0) != LOCAL_FILE_HEADER) {
+            throw new IOException("Invalid local header of '" + entry.name + "' in '" + archive.getAbsolutePath() + "'.");
+        }
+
+        long dataOffset = entry.localHeaderOffset + LOCAL_FILE_HEADER_SIZE + getUnsignedShort(localHeader, 26)
+            + getUnsignedShort(localHeader, 28);
+        ByteBuffer data = read(channel, dataOffset, entry.compressedSize, archive);
+
+        if (entry.method == STORED) {
+            return data.order(ByteOrder.BIG_ENDIAN);
+        }
+
+        if (entry.method != DEFLATED) {
+            throw new IOException("Unsupported compression method " + entry.method + " of '" + entry.name + "' in '" + archive.getAbsolutePath() + "'.");
+        }
+
+        Inflater inflater = new Inflater(true);
+        try {
+            inflater.setInput(data);
+            byte[] classFile = new byte[entry.size];
+            int length = 0;
+            while (length < classFile.length && !inflater.finished()) {
+                int inflated = inflater.inflate(classFile, length, classFile.length - length);
+                if (inflated == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    break;
+                }
+                length += inflated;
+            }
+
+            if (length != classFile.length) {
+                throw new IOException("Truncated entry '" + entry.name + "' in '" + archive.getAbsolutePath() + "'.");
+            }
+
+            return ByteBuffer.wrap(classFile);
+        } catch (DataFormatException e) {
+            throw new IOException("Invalid compressed entry '" + entry.name + "' in '" + archive.getAbsolutePath() + "'.", e);
+        } finally {
+            inflater.end();
+        }
+    }
+
+    private static int getUnsignedShort(ByteBuffer buffer, int offset) {
+        return buffer.getShort(offset) & 0xFFFF;
+    }
+
+    private static long getUnsignedInt(ByteBuffer buffer, int offset) {
+        return buffer.getInt(offset) & 0xFFFFFFFFL;
+    }
+
+    private static ClassDependencies parse(FileChannel channel, Entry entry, File archive) throws IOException {
+        ByteBuffer data = getData(channel, entry, archive);
+
+        try {
+            return ClassFileParser.parse(data);
+        } catch (RuntimeException e) {
+            throw new IOException("Failed to parse class file '" + entry.name + "' in '" + archive.getAbsolutePath() + "'.", e);
+        }
+    }
+
+    /**
+     * @return The bytes of the archive from the position on, in little-endian order.
+     */
+    private static ByteBuffer read(FileChannel channel, long position, int length, File archive) throws IOException {
+        if (position < 0) {
+            throw new IOException("Invalid offset " + position + " in '" + archive.getAbsolutePath() + "'.");
+        }
+
+        ByteBuffer result = ByteBuffer.allocate(length).order(ByteOrder.LITTLE_ENDIAN);
+        while (result.hasRemaining()) {
+            if (channel.read(result, position + result.position()) == -1) {
+                throw new IOException("Unexpected end of '" + archive.getAbsolutePath() + "'.");
+            }
+        }
+
+        return result.flip();
+    }
+
+    private static List<Entry> readCentralDirectory(FileChannel channel, File archive) throws IOException {
+        // the end of central directory record is followed by a comment of up to 64 KiB and preceded by the ZIP64 locator
+        long archiveSize = channel.size();
+        int tailSize = (int) Math.min(archiveSize, ZIP64_LOCATOR_SIZE + END_OF_CENTRAL_DIRECTORY_SIZE + MAX_COMMENT_LENGTH);
+        ByteBuffer tail = read(channel, archiveSize - tailSize, tailSize, archive);
+
+        int endOffset = findEndOfCentralDirectory(tail);
+        if (endOffset == -1) {
+            throw new IOException("'" + archive.getAbsolutePath() + "' is not a ZIP archive.");
+        }
+
+        long entryCount = getUnsignedShort(tail, endOffset + 10);
+        long directorySize = getUnsignedInt(tail, endOffset + 12);
+        long directoryOffset = getUnsignedInt(tail, endOffset + 16);
+
+        int locatorOffset = endOffset - ZIP64_LOCATOR_SIZE;
+        if (locatorOffset >= 0 && tail.getInt(locatorOffset) == ZIP64_LOCATOR) {
+            ByteBuffer zip64End = read(channel, tail.getLong(locatorOffset + 8), ZIP64_END_OF_CENTRAL_DIRECTORY_SIZE, archive);
+            if (zip64End.getInt(0) == ZIP64_END_OF_CENTRAL_DIRECTORY) {
+                entryCount = zip64End.getLong(32);
+                directorySize = zip64End.getLong(40);
+                directoryOffset = zip64End.getLong(48);
+            }
+        }
+
+        ByteBuffer buffer = read(channel, directoryOffset, toSize(directorySize, archive), archive);
+        List<Entry> result = new ArrayList<>();
+        int offset = 0;
+        for (long i = 0; i < entryCount; i++) {
+            if (buffer.getInt(offset) != CENTRAL_DIRECTORY_ENTRY) {
+                throw new IOException("Invalid central directory in '" + archive.getAbsolutePath() + "'.");
+            }
+
+            int nameLength = getUnsignedShort(buffer, offset + 28);
+            int extraLength = getUnsignedShort(buffer, offset + 30);
+            int commentLength = getUnsignedShort(buffer, offset + 32);
+
+            byte[] nameBytes = new byte[nameLength];
+            buffer.get(offset + 46, nameBytes);
+            String name = new String(nameBytes, StandardCharsets.UTF_8);
+
+            if (name.endsWith(CLASS_FILE_EXTENSION) && !name.startsWith(VERSIONED_CLASSES)) {
+                long compressedSize = getUnsignedInt(buffer, offset + 20);
+                long size = getUnsignedInt(buffer, offset + 24);
+                long localHeaderOffset = getUnsignedInt(buffer, offset + 42);
+
+                // ZIP64 values replace the fields that are set to 0xFFFFFFFF, in this order
+                int extraOffset = offset + 46 + nameLength;
+                int extraEnd = extraOffset + extraLength;
+                while (extraOffset + 4 <= extraEnd) {
+                    int headerId = getUnsignedShort(buffer, extraOffset);
+                    int dataSize = getUnsignedShort(buffer, extraOffset + 2);
+                    if (headerId == ZIP64_EXTRA_FIELD) {
+                        int valueOffset = extraOffset + 4;
+                        if (size == 0xFFFFFFFFL) {
+                            size = buffer.getLong(valueOffset);
+                            valueOffset += 8;
+                        }
+                        if (compressedSize == 0xFFFFFFFFL) {
+                            compressedSize = buffer.getLong(valueOffset);
+                            valueOffset += 8;
+                        }
+                        if (localHeaderOffset == 0xFFFFFFFFL) {
+                            localHeaderOffset = buffer.getLong(valueOffset);
+                        }
+                    }
+                    extraOffset += 4 + dataSize;
+                }
+
+                result.add(
+                    new Entry(name, getUnsignedShort(buffer, offset + 10), toSize(compressedSize, archive), toSize(size, archive),
+                        localHeaderOffset));
+            }
+
+            offset += 46 + nameLength + extraLength + commentLength;
+        }
+
+        return result;
+    }
+
+    private static int toSize(long value, File archive) throws IOException {
+        if (value < 0 || value > Integer.MAX_VALUE) {
+            throw new IOException("Invalid size " + value + " in '" + archive.getAbsolutePath() + "'.");
+        }
+
+        return (int) value;
+    }
+
+    private static final class Entry {
+
+        private final String name;
+        private final int method;
+        private final int compressedSize;
+        private final int size;
+        private final long localHeaderOffset;
+
+        public Entry(String name, int method, int compressedSize, int size, long localHeaderOffset) {
+            super();
+            this.name = name;
+            this.method = method;
+            this.compressedSize = compressedSize;
+            this.size = size;
+            this.localHeaderOffset = localHeaderOffset;
+        }
+    }
+}
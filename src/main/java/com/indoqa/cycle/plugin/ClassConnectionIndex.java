@@ -0,0 +1,55 @@
+/*
+ * Licensed to the Indoqa Software Design und Beratung GmbH (Indoqa) under
+ * one or more contributor license agreements. See the NOTICE file distributed
+ * with this work for additional information regarding copyright ownership.
+ * Indoqa licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.indoqa.cycle.plugin;
+
+import java.io.Closeable;
+import java.util.List;
+
+/**
+ * The class connections behind each edge of a {@link PackageGraph}, keyed by the ids of the source and target package.
+ */
+public interface ClassConnectionIndex extends Closeable {
+
+    /**
+     * @param kinds The bitmask of the {@link DependencyKind}s of the class dependency.
+     */
+    void add(int sourcePackage, int targetPackage, String sourceClass, String targetClass, int kinds);
+
+    /**
+     * Called after all connections were added and before the first call of {@link #get(int, int, int)}.
+     */
+    default void complete() {
+        // nothing to do
+    }
+
+    /**
+     * Releases the resources of the index, e.g. its files. The index must not be used afterwards.
+     */
+    @Override
+    default void close() {
+        // nothing to release
+    }
+
+    default List<Connection<String>> get(int sourcePackage, int targetPackage) {
+        return this.get(sourcePackage, targetPackage, DependencyKind.ALL);
+    }
+
+    /**
+     * @return The class connections with at least one of the given {@link DependencyKind}s.
+     */
+    List<Connection<String>> get(int sourcePackage, int targetPackage, int dependencyKinds);
+}
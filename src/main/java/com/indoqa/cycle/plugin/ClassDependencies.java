@@ -0,0 +1,95 @@
+/*
+ * Licensed to the Indoqa Software Design und Beratung GmbH (Indoqa) under
+ * one or more contributor license agreements. See the NOTICE file distributed
+ * with this work for additional information regarding copyright ownership.
+ * Indoqa licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.indoqa.cycle.plugin;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+public class ClassDependencies {
+
+    private final String className;
+    private final List<String> dependencies;
+    private final int[] kinds;
+
+    /**
+     * Creates dependencies of unknown kind, they count as dependencies of all {@link DependencyKind}s.
+     */
+    public ClassDependencies(String className, Collection<String> dependencies) {
+        super();
+        this.className = className;
+        this.dependencies = dependencies.stream().filter(dependency -> !dependency.equals(className)).sorted().distinct().toList();
+        this.kinds = new int[this.dependencies.size()];
+        Arrays.fill(this.kinds, DependencyKind.ALL);
+    }
+
+    /**
+     * @param dependencyKinds The bitmask of the {@link DependencyKind}s of each dependency.
+     */
+    public ClassDependencies(String className, Map<String, Integer> dependencyKinds) {
+        super();
+        this.className = className;
+        this.dependencies = dependencyKinds.keySet().stream().filter(dependency -> !dependency.equals(className)).sorted().toList();
+        this.kinds = new int[this.dependencies.size()];
+        for (int i = 0; i < this.kinds.length; i++) {
+            this.kinds[i] = dependencyKinds.get(this.dependencies.get(i));
+        }
+    }
+
+    public static String getPackageName(String className) {
+        int index = className.lastIndexOf('.');
+        if (index == -1) {
+            return "";
+        }
+
+        return className.substring(0, index);
+    }
+
+    public String getClassName() {
+        return this.className;
+    }
+
+    public List<String> getDependencies() {
+        return this.dependencies;
+    }
+
+    /**
+     * @return The bitmask of the {@link DependencyKind}s of the dependency at the index of {@link #getDependencies()}.
+     */
+    public int getKinds(int dependencyIndex) {
+        return this.kinds[dependencyIndex];
+    }
+
+    /**
+     * @return The bitmask of the {@link DependencyKind}s of the dependency or 0 if the class does not depend on it.
+     */
+    public int getKinds(String dependency) {
+        int index = Collections.binarySearch(this.dependencies, dependency);
+        return index < 0 ? 0 : this.kinds[index];
+    }
+
+    public String getPackageName() {
+        return getPackageName(this.className);
+    }
+
+    @Override
+    public String toString() {
+        return this.className + " -> " + this.dependencies;
+    }
+}
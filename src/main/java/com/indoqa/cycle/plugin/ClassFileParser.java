@@ -0,0 +1,643 @@
+/*
+ * Licensed to the Indoqa Software Design und Beratung GmbH (Indoqa) under
+ * one or more contributor license agreements. See the NOTICE file distributed
+ * with this work for additional information regarding copyright ownership.
+ * Indoqa licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.indoqa.cycle.plugin;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Minimal class file parser that only reads what is needed to find the referenced classes: the constant pool, the
+ * descriptors and signatures of fields and methods and the annotations. Method bodies are only scanned for the
+ * instructions that reference class constants. Each dependency is classified by the {@link DependencyKind}s of its
+ * references; class constants that are used by code or not used by any attribute are referenced by code. Class
+ * constants that only exist for the nesting attributes, e.g. for the nested enum of an annotation value, and for the
+ * declared exceptions are not.
+ */
+public final class ClassFileParser {
+
+    private static final int MAGIC = 0xCAFEBABE;
+    private static final int ACC_MODULE = 0x8000;
+
+    private static final int CONSTANT_UTF8 = 1;
+    private static final int CONSTANT_INTEGER = 3;
+    private static final int CONSTANT_FLOAT = 4;
+    private static final int CONSTANT_LONG = 5;
+    private static final int CONSTANT_DOUBLE = 6;
+    private static final int CONSTANT_CLASS = 7;
+    private static final int CONSTANT_STRING = 8;
+    private static final int CONSTANT_FIELD_REF = 9;
+    private static final int CONSTANT_METHOD_REF = 10;
+    private static final int CONSTANT_INTERFACE_METHOD_REF = 11;
+    private static final int CONSTANT_NAME_AND_TYPE = 12;
+    private static final int CONSTANT_METHOD_HANDLE = 15;
+    private static final int CONSTANT_METHOD_TYPE = 16;
+    private static final int CONSTANT_DYNAMIC = 17;
+    private static final int CONSTANT_INVOKE_DYNAMIC = 18;
+    private static final int CONSTANT_MODULE = 19;
+    private static final int CONSTANT_PACKAGE = 20;
+
+    private static final int LDC = 0x12;
+    private static final int LDC_W = 0x13;
+    private static final int IINC = 0x84;
+    private static final int TABLESWITCH = 0xAA;
+    private static final int LOOKUPSWITCH = 0xAB;
+    private static final int NEW = 0xBB;
+    private static final int ANEWARRAY = 0xBD;
+    private static final int CHECKCAST = 0xC0;
+    private static final int INSTANCEOF = 0xC1;
+    private static final int WIDE = 0xC4;
+    private static final int MULTIANEWARRAY = 0xC5;
+    private static final int[] OPERAND_LENGTHS = createOperandLengths();
+
+    private static final int ITEM_OBJECT = 7;
+    private static final int ITEM_UNINITIALIZED = 8;
+
+    private final ByteBuffer buffer;
+    private final Map<String, Integer> dependencies = new HashMap<>();
+
+    private int position;
+    private int kind;
+    private int[] utf8Offsets;
+    private int[] classNameIndexes;
+    private boolean[] codeClassIndexes;
+    private boolean[] attributeClassIndexes;
+
+    private ClassFileParser(ByteBuffer buffer) {
+        this.buffer = buffer;
+        this.position = buffer.position();
+    }
+
+    /**
+     * @return The dependencies of the class or <code>null</code> if the buffer contains a module descriptor.
+     */
+    public static ClassDependencies parse(ByteBuffer buffer) {
+        return new ClassFileParser(buffer).parse();
+    }
+
+    private static int[] createOperandLengths() {
+        int[] result = new int[256];
+
+        result[0x10] = 1;
+        result[0x11] = 2;
+        result[LDC] = 1;
+        result[LDC_W] = 2;
+        result[0x14] = 2;
+        Arrays.fill(result, 0x15, 0x1A, 1);
+        Arrays.fill(result, 0x36, 0x3B, 1);
+        result[IINC] = 2;
+        Arrays.fill(result, 0x99, 0xA9, 2);
+        result[0xA9] = 1;
+        Arrays.fill(result, 0xB2, 0xB9, 2);
+        result[0xB9] = 4;
+        result[0xBA] = 4;
+        result[NEW] = 2;
+        result[0xBC] = 1;
+        result[ANEWARRAY] = 2;
+        result[CHECKCAST] = 2;
+        result[INSTANCEOF] = 2;
+        result[MULTIANEWARRAY] = 3;
+        result[0xC6] = 2;
+        result[0xC7] = 2;
+        result[0xC8] = 4;
+        result[0xC9] = 4;
+
+        return result;
+    }
+
+    private static String toClassName(String internalName) {
+        return internalName.replace('/', '.');
+    }
+
+    private void addClass(String internalName) {
+        if (internalName.startsWith("[")) {
+            this.addDescriptor(internalName);
+            return;
+        }
+
+        this.addDependency(toClassName(internalName));
+    }
+
+    private void addDependency(String className) {
+        this.dependencies.merge(className, this.kind, (kinds1, kinds2) -> kinds1 | kinds2);
+    }
+
+    private void addDescriptor(String descriptor) {
+        int index = 0;
+
+        if (descriptor.charAt(0) == '<') {
+            index = this.readFormalTypeParameters(descriptor, 1);
+        }
+
+        while (index < descriptor.length()) {
+            char current = descriptor.charAt(index);
+            if (current == '(' || current == ')' || current == '^') {
+                index++;
+            } else {
+                index = this.readType(descriptor, index);
+            }
+        }
+    }
+
+    private String getUtf8(int index) {
+        int offset = this.utf8Offsets[index];
+        int length = this.buffer.getShort(offset) & 0xFFFF;
+
+        char[] result = new char[length];
+        int count = 0;
+        int current = offset + 2;
+        int end = current + length;
+
+        while (current < end) {
+            int value = this.buffer.get(current++) & 0xFF;
+            if (value < 0x80) {
+                result[count++] = (char) value;
+            } else if (value < 0xE0) {
+                result[count++] = (char) ((value & 0x1F) << 6 | this.buffer.get(current++) & 0x3F);
+            } else {
+                int second = this.buffer.get(current++) & 0x3F;
+                result[count++] = (char) ((value & 0x0F) << 12 | second << 6 | this.buffer.get(current++) & 0x3F);
+            }
+        }
+
+        return new String(result, 0, count);
+    }
+
+    private ClassDependencies parse() {
+        if (this.readInt() != MAGIC) {
+            throw new IllegalArgumentException("Not a class file.");
+        }
+        this.skip(4);
+
+        int[] descriptorIndexes = this.readConstantPool();
+
+        int accessFlags = this.readUnsignedShort();
+        if ((accessFlags & ACC_MODULE) != 0) {
+            return null;
+        }
+
+        int classIndex = this.readUnsignedShort();
+        String className = this.getUtf8(this.classNameIndexes[classIndex]);
+
+        // the class and its super types are class constants as well, they must not count as code dependencies
+        this.kind = DependencyKind.INHERITANCE.getMask();
+        boolean[] superTypeIndexes = new boolean[this.classNameIndexes.length];
+        superTypeIndexes[classIndex] = true;
+        int superClassIndex = this.readUnsignedShort();
+        if (superClassIndex != 0) {
+            this.addClass(this.getUtf8(this.classNameIndexes[superClassIndex]));
+            superTypeIndexes[superClassIndex] = true;
+        }
+        int interfaceCount = this.readUnsignedShort();
+        for (int i = 0; i < interfaceCount; i++) {
+            int interfaceIndex = this.readUnsignedShort();
+            this.addClass(this.getUtf8(this.classNameIndexes[interfaceIndex]));
+            superTypeIndexes[interfaceIndex] = true;
+        }
+
+        this.readMembers(DependencyKind.FIELD);
+        this.readMembers(DependencyKind.SIGNATURE);
+        this.kind = DependencyKind.INHERITANCE.getMask();
+        this.readAttributes();
+
+        this.kind = DependencyKind.CODE.getMask();
+        for (int i = 0; i < this.classNameIndexes.length; i++) {
+            if (this.classNameIndexes[i] != 0 && !superTypeIndexes[i] && (this.codeClassIndexes[i] || !this.attributeClassIndexes[i])) {
+                this.addClass(this.getUtf8(this.classNameIndexes[i]));
+            }
+        }
+        for (int eachDescriptorIndex : descriptorIndexes) {
+            this.addDescriptor(this.getUtf8(eachDescriptorIndex));
+        }
+
+        return new ClassDependencies(toClassName(className), this.dependencies);
+    }
+
+    private void readAnnotation() {
+        int previousKind = this.kind;
+        this.kind = DependencyKind.ANNOTATION.getMask();
+        this.addDescriptor(this.getUtf8(this.readUnsignedShort()));
+
+        int pairCount = this.readUnsignedShort();
+        for (int i = 0; i < pairCount; i++) {
+            this.skip(2);
+            this.readElementValue();
+        }
+        this.kind = previousKind;
+    }
+
+    private void readAnnotations() {
+        int annotationCount = this.readUnsignedShort();
+        for (int i = 0; i < annotationCount; i++) {
+            this.readAnnotation();
+        }
+    }
+
+    private void readAttributes() {
+        int attributeCount = this.readUnsignedShort();
+
+        for (int i = 0; i < attributeCount; i++) {
+            String name = this.getUtf8(this.readUnsignedShort());
+            int length = this.readInt();
+            int end = this.position + length;
+
+            switch (name) {
+                case "Signature":
+                    this.addDescriptor(this.getUtf8(this.readUnsignedShort()));
+                    break;
+
+                case "RuntimeVisibleAnnotations":
+                case "RuntimeInvisibleAnnotations":
+                    this.readAnnotations();
+                    break;
+
+                case "RuntimeVisibleParameterAnnotations":
+                case "RuntimeInvisibleParameterAnnotations":
+                    int parameterCount = this.readUnsignedByte();
+                    for (int j = 0; j < parameterCount; j++) {
+                        this.readAnnotations();
+                    }
+                    break;
+
+                case "AnnotationDefault":
+                    int previousKind = this.kind;
+                    this.kind = DependencyKind.ANNOTATION.getMask();
+                    this.readElementValue();
+                    this.kind = previousKind;
+                    break;
+
+                case "Exceptions":
+                    int exceptionCount = this.readUnsignedShort();
+                    for (int j = 0; j < exceptionCount; j++) {
+                        int exceptionIndex = this.readUnsignedShort();
+                        this.addClass(this.getUtf8(this.classNameIndexes[exceptionIndex]));
+                        this.attributeClassIndexes[exceptionIndex] = true;
+                    }
+                    break;
+
+                case "Code":
+                    this.readCode();
+                    break;
+
+                case "StackMapTable":
+                    this.readStackMapTable();
+                    break;
+
+                case "BootstrapMethods":
+                    int bootstrapMethodCount = this.readUnsignedShort();
+                    for (int j = 0; j < bootstrapMethodCount; j++) {
+                        this.skip(2);
+                        int argumentCount = this.readUnsignedShort();
+                        for (int k = 0; k < argumentCount; k++) {
+                            this.codeClassIndexes[this.readUnsignedShort()] = true;
+                        }
+                    }
+                    break;
+
+                case "InnerClasses":
+                    int innerClassCount = this.readUnsignedShort();
+                    for (int j = 0; j < innerClassCount; j++) {
+                        this.attributeClassIndexes[this.readUnsignedShort()] = true;
+                        this.attributeClassIndexes[this.readUnsignedShort()] = true;
+                        this.skip(4);
+                    }
+                    break;
+
+                case "NestHost":
+                case "EnclosingMethod":
+                    this.attributeClassIndexes[this.readUnsignedShort()] = true;
+                    break;
+
+                case "NestMembers":
+                    int nestMemberCount = this.readUnsignedShort();
+                    for (int j = 0; j < nestMemberCount; j++) {
+                        this.attributeClassIndexes[this.readUnsignedShort()] = true;
+                    }
+                    break;
+
+                default:
+                    break;
+            }
+
+            this.position = end;
+        }
+    }
+
+    private int readClassType(String signature, int start) {
+        int index = start + 1;
+        int nameStart = index;
+        String className = null;
+
+        while (true) {
+            char current = signature.charAt(index);
+            if (current != ';' && current != '<' && current != '.') {
+                index++;
+                continue;
+            }
+
+            String name = signature.substring(nameStart, index);
+            className = className == null ? toClassName(name) : className + '$' + name;
+            this.addDependency(className);
+
+            if (current == '<') {
+                index = this.readTypeArguments(signature, index);
+                current = signature.charAt(index);
+            }
+
+            if (current == ';') {
+                return index + 1;
+            }
+
+            index++;
+            nameStart = index;
+        }
+    }
+
+    /**
+     * Marks the class constants referenced by instructions and caught exceptions, then reads the attributes of the code.
+     */
+    private void readCode() {
+        this.skip(4);
+        int codeLength = this.readInt();
+        int codeStart = this.position;
+        int codeEnd = codeStart + codeLength;
+
+        while (this.position < codeEnd) {
+            int opcode = this.readUnsignedByte();
+
+            switch (opcode) {
+                case LDC:
+                    this.codeClassIndexes[this.readUnsignedByte()] = true;
+                    break;
+
+                case LDC_W:
+                case NEW:
+                case ANEWARRAY:
+                case CHECKCAST:
+                case INSTANCEOF:
+                case MULTIANEWARRAY:
+                    this.codeClassIndexes[this.readUnsignedShort()] = true;
+                    this.skip(OPERAND_LENGTHS[opcode] - 2);
+                    break;
+
+                case TABLESWITCH:
+                    this.skip(3 - (this.position - codeStart - 1) % 4 + 4);
+                    int low = this.readInt();
+                    int high = this.readInt();
+                    this.skip((high - low + 1) * 4);
+                    break;
+
+                case LOOKUPSWITCH:
+                    this.skip(3 - (this.position - codeStart - 1) % 4 + 4);
+                    this.skip(this.readInt() * 8);
+                    break;
+
+                case WIDE:
+                    this.skip(this.readUnsignedByte() == IINC ? 4 : 2);
+                    break;
+
+                default:
+                    this.skip(OPERAND_LENGTHS[opcode]);
+                    break;
+            }
+        }
+
+        int exceptionCount = this.readUnsignedShort();
+        for (int i = 0; i < exceptionCount; i++) {
+            this.skip(6);
+            this.codeClassIndexes[this.readUnsignedShort()] = true;
+        }
+
+        this.readAttributes();
+    }
+
+    /**
+     * @return The indexes of the descriptors of the name and type and method type constants.
+     */
+    private int[] readConstantPool() {
+        int count = this.readUnsignedShort();
+        this.utf8Offsets = new int[count];
+        this.classNameIndexes = new int[count];
+        this.codeClassIndexes = new boolean[count];
+        this.attributeClassIndexes = new boolean[count];
+
+        int[] descriptorIndexes = new int[count];
+        int descriptorCount = 0;
+
+        for (int i = 1; i < count; i++) {
+            int tag = this.readUnsignedByte();
+
+            switch (tag) {
+                case CONSTANT_UTF8:
+                    this.utf8Offsets[i] = this.position;
+                    this.skip(this.readUnsignedShort());
+                    break;
+
+                case CONSTANT_CLASS:
+                    this.classNameIndexes[i] = this.readUnsignedShort();
+                    break;
+
+                case CONSTANT_NAME_AND_TYPE:
+                    this.skip(2);
+                    descriptorIndexes[descriptorCount++] = this.readUnsignedShort();
+                    break;
+
+                case CONSTANT_METHOD_TYPE:
+                    descriptorIndexes[descriptorCount++] = this.readUnsignedShort();
+                    break;
+
+                case CONSTANT_STRING:
+                case CONSTANT_MODULE:
+                case CONSTANT_PACKAGE:
+                    this.skip(2);
+                    break;
+
+                case CONSTANT_METHOD_HANDLE:
+                    this.skip(3);
+                    break;
+
+                case CONSTANT_FIELD_REF:
+                case CONSTANT_METHOD_REF:
+                case CONSTANT_INTERFACE_METHOD_REF:
+                    this.codeClassIndexes[this.readUnsignedShort()] = true;
+                    this.skip(2);
+                    break;
+
+                case CONSTANT_INTEGER:
+                case CONSTANT_FLOAT:
+                case CONSTANT_DYNAMIC:
+                case CONSTANT_INVOKE_DYNAMIC:
+                    this.skip(4);
+                    break;
+
+                case CONSTANT_LONG:
+                case CONSTANT_DOUBLE:
+                    this.skip(8);
+                    i++;
+                    break;
+
+                default:
+                    throw new IllegalArgumentException("Unknown constant pool tag " + tag + ".");
+            }
+        }
+
+        return Arrays.copyOf(descriptorIndexes, descriptorCount);
+    }
+
+    private void readElementValue() {
+        int tag = this.readUnsignedByte();
+
+        switch (tag) {
+            case 'e':
+                this.addDescriptor(this.getUtf8(this.readUnsignedShort()));
+                this.skip(2);
+                break;
+
+            case 'c':
+                this.addDescriptor(this.getUtf8(this.readUnsignedShort()));
+                break;
+
+            case '@':
+                this.readAnnotation();
+                break;
+
+            case '[':
+                int valueCount = this.readUnsignedShort();
+                for (int i = 0; i < valueCount; i++) {
+                    this.readElementValue();
+                }
+                break;
+
+            default:
+                this.skip(2);
+                break;
+        }
+    }
+
+    private int readFormalTypeParameters(String signature, int start) {
+        int index = start;
+
+        while (signature.charAt(index) != '>') {
+            index = signature.indexOf(':', index);
+
+            while (signature.charAt(index) == ':') {
+                index++;
+                if (signature.charAt(index) != ':' && signature.charAt(index) != '>') {
+                    index = this.readType(signature, index);
+                }
+            }
+        }
+
+        return index + 1;
+    }
+
+    private int readInt() {
+        int result = this.buffer.getInt(this.position);
+        this.position += 4;
+        return result;
+    }
+
+    private void readMembers(DependencyKind memberKind) {
+        int memberCount = this.readUnsignedShort();
+
+        for (int i = 0; i < memberCount; i++) {
+            this.kind = memberKind.getMask();
+            this.skip(4);
+            this.addDescriptor(this.getUtf8(this.readUnsignedShort()));
+            this.readAttributes();
+        }
+    }
+
+    private void readStackMapTable() {
+        int frameCount = this.readUnsignedShort();
+
+        for (int i = 0; i < frameCount; i++) {
+            int frameType = this.readUnsignedByte();
+
+            if (frameType >= 64 && frameType < 128) {
+                this.readVerificationTypes(1);
+            } else if (frameType == 247) {
+                this.skip(2);
+                this.readVerificationTypes(1);
+            } else if (frameType >= 248 && frameType < 252) {
+                this.skip(2);
+            } else if (frameType >= 252 && frameType < 255) {
+                this.skip(2);
+                this.readVerificationTypes(frameType - 251);
+            } else if (frameType == 255) {
+                this.skip(2);
+                this.readVerificationTypes(this.readUnsignedShort());
+                this.readVerificationTypes(this.readUnsignedShort());
+            }
+        }
+    }
+
+    private int readType(String signature, int start) {
+        switch (signature.charAt(start)) {
+            case 'L':
+                return this.readClassType(signature, start);
+
+            case 'T':
+                return signature.indexOf(';', start) + 1;
+
+            case '[':
+            case '+':
+            case '-':
+                return this.readType(signature, start + 1);
+
+            default:
+                return start + 1;
+        }
+    }
+
+    private int readTypeArguments(String signature, int start) {
+        int index = start + 1;
+
+        while (signature.charAt(index) != '>') {
+            index = this.readType(signature, index);
+        }
+
+        return index + 1;
+    }
+
+    private int readUnsignedByte() {
+        return this.buffer.get(this.position++) & 0xFF;
+    }
+
+    private int readUnsignedShort() {
+        int result = this.buffer.getShort(this.position) & 0xFFFF;
+        this.position += 2;
+        return result;
+    }
+
+    private void readVerificationTypes(int count) {
+        for (int i = 0; i < count; i++) {
+            int tag = this.readUnsignedByte();
+
+            if (tag == ITEM_OBJECT) {
+                this.codeClassIndexes[this.readUnsignedShort()] = true;
+            } else if (tag == ITEM_UNINITIALIZED) {
+                this.skip(2);
+            }
+        }
+    }
+
+    private void skip(int count) {
+        this.position += count;
+    }
+}
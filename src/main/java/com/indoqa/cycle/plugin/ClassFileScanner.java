@@ -0,0 +1,79 @@
+/*
+ * Licensed to the Indoqa Software Design und Beratung GmbH (Indoqa) under
+ * one or more contributor license agreements. See the NOTICE file distributed
+ * with this work for additional information regarding copyright ownership.
+ * Indoqa licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.indoqa.cycle.plugin;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+
+public class ClassFileScanner implements ClassDependencyImporter {
+
+    public static final String NAME = "scanner";
+
+    private final ForkJoinPool pool;
+
+    public ClassFileScanner() {
+        this(ForkJoinPool.commonPool());
+    }
+
+    public ClassFileScanner(ForkJoinPool pool) {
+        super();
+        this.pool = pool;
+    }
+
+    public static ClassDependencies scan(File classFile) throws IOException {
+        try {
+            return ClassFileParser.parse(ByteBuffer.wrap(Files.readAllBytes(classFile.toPath())));
+        } catch (RuntimeException e) {
+            throw new IOException("Failed to parse class file '" + classFile.getAbsolutePath() + "'.", e);
+        }
+    }
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public Map<File, ClassDependencies> importClassFiles(Collection<File> classFiles) throws IOException {
+        Map<File, ClassDependencies> result = new ConcurrentHashMap<>(classFiles.size());
+
+        try {
+            // parallel streams run in the pool that started them
+            this.pool.submit(() -> classFiles.parallelStream().forEach(classFile -> {
+                try {
+                    ClassDependencies classDependencies = scan(classFile);
+                    if (classDependencies != null) {
+                        result.put(classFile, classDependencies);
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            })).join();
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+
+        return result;
+    }
+}
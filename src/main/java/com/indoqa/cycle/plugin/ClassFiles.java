@@ -0,0 +1,98 @@
+/*
+ * Licensed to the Indoqa Software Design und Beratung GmbH (Indoqa) under
+ * one or more contributor license agreements. See the NOTICE file distributed
+ * with this work for additional information regarding copyright ownership.
+ * Indoqa licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.indoqa.cycle.plugin;
+
+import static com.indoqa.cycle.plugin.ClassFileFilter.CLASS_FILE_FILTER;
+import static com.indoqa.cycle.plugin.DirectoryFilter.DIRECTORY_FILTER;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+public final class ClassFiles {
+
+    private ClassFiles() {
+        // hide utility class constructor
+    }
+
+    public static List<File> find(File directory) {
+        List<File> result = new ArrayList<>();
+        collect(directory.toPath().toAbsolutePath().normalize().toFile(), result);
+        return result;
+    }
+
+    public static List<File> find(File directory, ForkJoinPool pool) {
+        return pool.invoke(new FindTask(directory.toPath().toAbsolutePath().normalize().toFile()));
+    }
+
+    private static void collect(File directory, List<File> result) {
+        File[] classFiles = directory.listFiles(CLASS_FILE_FILTER);
+        if (classFiles != null) {
+            for (File eachClassFile : classFiles) {
+                result.add(eachClassFile);
+            }
+        }
+
+        File[] subDirectories = directory.listFiles(DIRECTORY_FILTER);
+        if (subDirectories != null) {
+            for (File eachSubDirectory : subDirectories) {
+                collect(eachSubDirectory, result);
+            }
+        }
+    }
+
+    private static final class FindTask extends RecursiveTask<List<File>> {
+
+        private static final long serialVersionUID = 1L;
+
+        private final File directory;
+
+        public FindTask(File directory) {
+            super();
+            this.directory = directory;
+        }
+
+        @Override
+        protected List<File> compute() {
+            List<FindTask> subTasks = new ArrayList<>();
+            File[] subDirectories = this.directory.listFiles(DIRECTORY_FILTER);
+            if (subDirectories != null) {
+                for (File eachSubDirectory : subDirectories) {
+                    FindTask subTask = new FindTask(eachSubDirectory);
+                    subTask.fork();
+                    subTasks.add(subTask);
+                }
+            }
+
+            List<File> result = new ArrayList<>();
+            File[] classFiles = this.directory.listFiles(CLASS_FILE_FILTER);
+            if (classFiles != null) {
+                for (File eachClassFile : classFiles) {
+                    result.add(eachClassFile);
+                }
+            }
+
+            for (FindTask eachSubTask : subTasks) {
+                result.addAll(eachSubTask.join());
+            }
+
+            return result;
+        }
+    }
+}
@@ -0,0 +1,58 @@
+/*
+ * Licensed to the Indoqa Software Design und Beratung GmbH (Indoqa) under
+ * one or more contributor license agreements. See the NOTICE file distributed
+ * with this work for additional information regarding copyright ownership.
+ * Indoqa licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.indoqa.cycle.plugin;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+public class CompositeCycleReporter implements CycleReporter {
+
+    private final List<CycleReporter> reporters = new ArrayList<>();
+
+    public void add(CycleReporter reporter) {
+        this.reporters.add(reporter);
+    }
+
+    @Override
+    public void close() throws IOException {
+        IOException exception = null;
+
+        for (CycleReporter eachReporter : this.reporters) {
+            try {
+                eachReporter.close();
+            } catch (IOException e) {
+                if (exception == null) {
+                    exception = e;
+                } else {
+                    exception.addSuppressed(e);
+                }
+            }
+        }
+
+        if (exception != null) {
+            throw exception;
+        }
+    }
+
+    @Override
+    public void report(Cycle cycle, CycleDetector cycleDetector) throws IOException {
+        for (CycleReporter eachReporter : this.reporters) {
+            eachReporter.report(cycle, cycleDetector);
+        }
+    }
+}
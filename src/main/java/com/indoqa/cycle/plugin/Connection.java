@@ -16,6 +16,8 @@
  */
 package com.indoqa.cycle.plugin;
 
+import java.util.Objects;
+
 public class Connection<T> {
 
     private final T start;
@@ -27,6 +29,20 @@ public class Connection<T> {
         this.end = end;
     }
 
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+
+        if (!(obj instanceof Connection)) {
+            return false;
+        }
+
+        Connection<?> other = (Connection<?>) obj;
+        return Objects.equals(this.start, other.start) && Objects.equals(this.end, other.end);
+    }
+
     public T getEnd() {
         return this.end;
     }
@@ -34,4 +50,9 @@ public class Connection<T> {
     public T getStart() {
         return this.start;
     }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(this.start, this.end);
+    }
 }
@@ -66,6 +66,15 @@ public class Cycle {
         return this.involvedPackages;
     }
 
+    public List<String> getLoop() {
+        int size = this.involvedPackages.size();
+        if (size > 1 && this.involvedPackages.get(0).equals(this.involvedPackages.get(size - 1))) {
+            return this.involvedPackages.subList(0, size - 1);
+        }
+
+        return this.involvedPackages;
+    }
+
     public int getLength() {
         return this.involvedPackages.size();
     }
@@ -75,6 +84,27 @@ public class Cycle {
         return this.involvedPackages.hashCode();
     }
 
+    public Cycle normalize() {
+        List<String> loop = this.getLoop();
+        if (loop.isEmpty()) {
+            return this;
+        }
+
+        int start = 0;
+        for (int i = 1; i < loop.size(); i++) {
+            if (loop.get(i).compareTo(loop.get(start)) < 0) {
+                start = i;
+            }
+        }
+
+        Cycle result = new Cycle();
+        for (int i = 0; i < loop.size(); i++) {
+            result.addInvolvedPackage(loop.get((start + i) % loop.size()));
+        }
+        result.addInvolvedPackage(loop.get(start));
+        return result;
+    }
+
     @Override
     public String toString() {
         return this.involvedPackages.toString();
@@ -0,0 +1,134 @@
+/*
+ * Licensed to the Indoqa Software Design und Beratung GmbH (Indoqa) under
+ * one or more contributor license agreements. See the NOTICE file distributed
+ * with this work for additional information regarding copyright ownership.
+ * Indoqa licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.indoqa.cycle.plugin;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Accepted package cycles, stored sorted as one normalized cycle per line, e.g. <code>a -> b -> a</code>. Detected
+ * cycles are compared by their normalized form, so the rotation of a cycle does not matter. A recording baseline
+ * accepts all cycles and collects them for {@link #write(Path)}. Cycles can be checked concurrently.
+ */
+public class CycleBaseline {
+
+    private static final String SEPARATOR = " -> ";
+    private static final String COMMENT = "#";
+    private static final String DIGEST_ALGORITHM = "SHA-256";
+
+    private final Set<String> keys;
+    private final Set<String> matchedKeys = ConcurrentHashMap.newKeySet();
+    private final boolean recording;
+
+    private CycleBaseline(Set<String> keys, boolean recording) {
+        super();
+        this.keys = keys;
+        this.recording = recording;
+    }
+
+    public static String getKey(Cycle cycle) {
+        return String.join(SEPARATOR, cycle.normalize().getInvolvedPackages());
+    }
+
+    public static CycleBaseline load(Path baselineFile) throws IOException {
+        Set<String> keys = ConcurrentHashMap.newKeySet();
+
+        for (String eachLine : Files.readAllLines(baselineFile, StandardCharsets.UTF_8)) {
+            String line = eachLine.trim();
+            if (line.isEmpty() || line.startsWith(COMMENT)) {
+                continue;
+            }
+
+            Cycle cycle = new Cycle();
+            for (String eachPackage : line.split(SEPARATOR.trim())) {
+                cycle.addInvolvedPackage(eachPackage.trim());
+            }
+            keys.add(getKey(cycle));
+        }
+
+        return new CycleBaseline(keys, false);
+    }
+
+    public static CycleBaseline record() {
+        return new CycleBaseline(ConcurrentHashMap.newKeySet(), true);
+    }
+
+    public String getDigest() {
+        try {
+            MessageDigest messageDigest = MessageDigest.getInstance(DIGEST_ALGORITHM);
+
+            for (String eachKey : new TreeSet<>(this.keys)) {
+                messageDigest.update(eachKey.getBytes(StandardCharsets.UTF_8));
+                messageDigest.update((byte) '\n');
+            }
+
+            return HexFormat.of().formatHex(messageDigest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("Digest algorithm " + DIGEST_ALGORITHM + " is not available.", e);
+        }
+    }
+
+    public int getCycleCount() {
+        return this.keys.size();
+    }
+
+    public int getMatchedCount() {
+        return this.matchedKeys.size();
+    }
+
+    public Set<String> getResolvedCycles() {
+        Set<String> result = new TreeSet<>(this.keys);
+        result.removeAll(this.matchedKeys);
+        return result;
+    }
+
+    public boolean isAccepted(Cycle cycle) {
+        String key = getKey(cycle);
+
+        if (this.recording) {
+            this.keys.add(key);
+        } else if (!this.keys.contains(key)) {
+            return false;
+        }
+
+        this.matchedKeys.add(key);
+        return true;
+    }
+
+    public boolean isRecording() {
+        return this.recording;
+    }
+
+    public void write(Path baselineFile) throws IOException {
+        Files.createDirectories(baselineFile.toAbsolutePath().getParent());
+
+        try (BufferedWriter writer = Files.newBufferedWriter(baselineFile, StandardCharsets.UTF_8)) {
+            writer.write(COMMENT + " Accepted package cycles, one normalized cycle per line.\n");
+            for (String eachKey : new TreeSet<>(this.keys)) {
+                writer.write(eachKey);
+                writer.write('\n');
+            }
+        }
+    }
+}
@@ -0,0 +1,68 @@
+/*
+ * Licensed to the Indoqa Software Design und Beratung GmbH (Indoqa) under
+ * one or more contributor license agreements. See the NOTICE file distributed
+ * with this work for additional information regarding copyright ownership.
+ * Indoqa licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.indoqa.cycle.plugin;
+
+/**
+ * Selects the {@link CycleStrategy} and limits the search for cycles. In fail-fast mode the search stops after the first
+ * cycle, which is enough to fail a build.
+ */
+public final class CycleBudget {
+
+    public static final int DEFAULT_MAX_CYCLES_PER_COMPONENT = 100;
+
+    public static final CycleBudget DEFAULT = new CycleBudget(CycleStrategy.SHORTEST, false, 0, DEFAULT_MAX_CYCLES_PER_COMPONENT, 0);
+
+    private final CycleStrategy strategy;
+    private final boolean failFast;
+    private final int maxCycleLength;
+    private final int maxCyclesPerComponent;
+    private final long timeoutMillis;
+
+    /**
+     * @param maxCycleLength The maximum number of packages of a reported cycle, 0 for no limit.
+     * @param maxCyclesPerComponent The maximum number of cycles reported per strongly connected component.
+     * @param timeoutMillis The wall-clock limit of the search in milliseconds, 0 for no limit.
+     */
+    public CycleBudget(CycleStrategy strategy, boolean failFast, int maxCycleLength, int maxCyclesPerComponent, long timeoutMillis) {
+        super();
+        this.strategy = strategy;
+        this.failFast = failFast;
+        this.maxCycleLength = maxCycleLength <= 0 ? Integer.MAX_VALUE : maxCycleLength;
+        this.maxCyclesPerComponent = failFast ? 1 : Math.max(1, maxCyclesPerComponent);
+        this.timeoutMillis = Math.max(0, timeoutMillis);
+    }
+
+    public int getMaxCycleLength() {
+        return this.maxCycleLength;
+    }
+
+    public int getMaxCyclesPerComponent() {
+        return this.maxCyclesPerComponent;
+    }
+
+    public CycleStrategy getStrategy() {
+        return this.strategy;
+    }
+
+    public long getTimeoutMillis() {
+        return this.timeoutMillis;
+    }
+
+    public boolean isFailFast() {
+        return this.failFast;
+    }
+}
@@ -0,0 +1,77 @@
+/*
+ * Licensed to the Indoqa Software Design und Beratung GmbH (Indoqa) under
+ * one or more contributor license agreements. See the NOTICE file distributed
+ * with this work for additional information regarding copyright ownership.
+ * Indoqa licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.indoqa.cycle.plugin;
+
+import java.util.List;
+
+/**
+ * The package dependencies suggested for removal to make a strongly connected component acyclic.
+ */
+public class CycleCut {
+
+    private final List<String> packages;
+    private final List<Dependency> dependencies;
+
+    public CycleCut(List<String> packages, List<Dependency> dependencies) {
+        super();
+        this.packages = packages;
+        this.dependencies = dependencies;
+    }
+
+    public List<Dependency> getDependencies() {
+        return this.dependencies;
+    }
+
+    public List<String> getPackages() {
+        return this.packages;
+    }
+
+    public int getWeight() {
+        int result = 0;
+
+        for (Dependency eachDependency : this.dependencies) {
+            result += eachDependency.getWeight();
+        }
+
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        return "SCC of " + this.packages.size() + " packages starting at " + this.packages.get(0) + " can be broken by removing "
+            + this.getWeight() + " class dependencies in " + this.dependencies.size() + " package dependencies";
+    }
+
+    public static class Dependency extends Connection<String> {
+
+        private final int weight;
+
+        public Dependency(String start, String end, int weight) {
+            super(start, end);
+            this.weight = weight;
+        }
+
+        public int getWeight() {
+            return this.weight;
+        }
+
+        @Override
+        public String toString() {
+            return this.getStart() + " -> " + this.getEnd() + " (" + this.weight + ")";
+        }
+    }
+}
@@ -19,163 +19,604 @@ package com.indoqa.cycle.plugin;
 import java.io.BufferedWriter;
 import java.io.File;
 import java.io.IOException;
-import java.nio.charset.Charset;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
 import java.util.stream.Stream;
 
-import com.tngtech.archunit.core.domain.Dependency;
-import com.tngtech.archunit.core.domain.JavaClass;
-import com.tngtech.archunit.core.domain.JavaClasses;
-import com.tngtech.archunit.core.domain.JavaPackage;
-import com.tngtech.archunit.core.importer.ClassFileImporter;
-import com.tngtech.archunit.core.importer.ImportOption.Predefined;
+import com.indoqa.cycle.plugin.CycleSearchResult.IncompleteComponent;
+import com.indoqa.cycle.plugin.CycleSearchResult.Reason;
 
 public class CycleDetector {
 
+    private static final String DIGEST_ALGORITHM = "SHA-256";
     private static final String NEW_LINE = "\r\n";
 
-    private JavaClasses javaClasses;
+    private final PackageGraph packageGraph;
+    private final ClassConnectionIndex classConnectionIndex;
+    private final Granularity granularity;
+    private final Predicate<String> classFilter;
+    private final int dependencyKinds;
+    private final Map<Long, List<Connection<String>>> cachedClassConnections;
     private String[] excludedPackages;
+    private CycleBaseline baseline;
+    private ForkJoinPool pool;
 
-    public CycleDetector(File directory, String[] excludedPackages) {
+    public CycleDetector(Collection<ClassDependencies> classDependencies, String[] excludedPackages) {
+        this(classDependencies, excludedPackages, Granularity.PACKAGE);
+    }
+
+    public CycleDetector(Collection<ClassDependencies> classDependencies, String[] excludedPackages, Granularity granularity) {
+        this(classDependencies, excludedPackages, granularity, new HeapClassConnectionIndex());
+    }
+
+    /**
+     * @param classConnectionIndex An empty index that receives the class connections behind each package dependency.
+     */
+    public CycleDetector(Collection<ClassDependencies> classDependencies, String[] excludedPackages, Granularity granularity,
+            ClassConnectionIndex classConnectionIndex) {
         super();
         this.excludedPackages = excludedPackages;
+        this.granularity = granularity;
+        this.classConnectionIndex = classConnectionIndex;
+        this.classFilter = null;
+        this.dependencyKinds = DependencyKind.ALL;
+        this.cachedClassConnections = null;
+
+        PackageMatcher excludedPackageMatcher = PackageMatcher.compile(excludedPackages);
+        Map<String, List<ClassDependencies>> classesByNode = new TreeMap<>();
+        Map<String, String> nodesByClass = new HashMap<>();
+        for (ClassDependencies eachClassDependencies : classDependencies) {
+            String node = getNode(eachClassDependencies.getClassName(), excludedPackageMatcher, granularity);
+            if (node == null) {
+                continue;
+            }
+
+            classesByNode.computeIfAbsent(node, key -> new ArrayList<>()).add(eachClassDependencies);
+            nodesByClass.put(eachClassDependencies.getClassName(), node);
+        }
+
+        PackageGraph.Builder builder = new PackageGraph.Builder();
+        for (Map.Entry<String, List<ClassDependencies>> eachNode : classesByNode.entrySet()) {
+            eachNode.getValue().sort(Comparator.comparing(ClassDependencies::getClassName));
+
+            builder.addNode(eachNode.getKey());
+            for (ClassDependencies eachClass : eachNode.getValue()) {
+                List<String> dependencies = eachClass.getDependencies();
+                for (int i = 0; i < dependencies.size(); i++) {
+                    String targetNode = nodesByClass.get(dependencies.get(i));
+                    if (targetNode != null) {
+                        builder.addEdge(eachNode.getKey(), targetNode, eachClass.getKinds(i));
+                    }
+                }
+            }
+        }
+        this.packageGraph = builder.build();
+
+        for (Map.Entry<String, List<ClassDependencies>> eachNode : classesByNode.entrySet()) {
+            int sourceNode = this.packageGraph.getId(eachNode.getKey());
+
+            for (ClassDependencies eachClass : eachNode.getValue()) {
+                List<String> dependencies = eachClass.getDependencies();
+                for (int i = 0; i < dependencies.size(); i++) {
+                    String targetNode = nodesByClass.get(dependencies.get(i));
+                    if (targetNode == null) {
+                        continue;
+                    }
+
+                    int targetId = this.packageGraph.getId(targetNode);
+                    if (targetId != sourceNode) {
+                        this.classConnectionIndex.add(sourceNode, targetId, eachClass.getClassName(), dependencies.get(i), eachClass.getKinds(i));
+                    }
+                }
+            }
+        }
+        this.classConnectionIndex.complete();
+    }
+
+    public CycleDetector(File directory, String[] excludedPackages) throws IOException {
+        this(new ClassFileScanner().importClassFiles(ClassFiles.find(directory)).values(), excludedPackages);
+    }
+
+    /**
+     * Creates a detector for a package graph that was built elsewhere, e.g. incrementally by {@link CycleWatchSession}.
+     * There are no class connections behind its package dependencies.
+     */
+    public CycleDetector(PackageGraph packageGraph, Granularity granularity) {
+        super();
+        this.packageGraph = packageGraph;
+        this.granularity = granularity;
+        this.classConnectionIndex = new HeapClassConnectionIndex();
+        this.classFilter = null;
+        this.dependencyKinds = DependencyKind.ALL;
+        this.cachedClassConnections = null;
+        this.classConnectionIndex.complete();
+    }
 
-        this.javaClasses = new ClassFileImporter(Arrays.asList(Predefined.DO_NOT_INCLUDE_ARCHIVES)).importPath(directory.toPath());
+    private CycleDetector(CycleDetector cycleDetector, PackageGraph packageGraph, Predicate<String> classFilter, int dependencyKinds) {
+        this(cycleDetector, packageGraph, classFilter, dependencyKinds, null);
     }
 
-    private static void indent(BufferedWriter writer, int depth) throws IOException {
-        for (int i = 0; i < depth; i++) {
-            writer.write("  ");
+    /**
+     * @param cachedClassConnections The class connections of some package dependencies, looked up in advance.
+     */
+    private CycleDetector(CycleDetector cycleDetector, Map<Long, List<Connection<String>>> cachedClassConnections) {
+        this(cycleDetector, cycleDetector.packageGraph, cycleDetector.classFilter, cycleDetector.dependencyKinds, cachedClassConnections);
+    }
+
+    private CycleDetector(CycleDetector cycleDetector, PackageGraph packageGraph, Predicate<String> classFilter, int dependencyKinds,
+            Map<Long, List<Connection<String>>> cachedClassConnections) {
+        super();
+        this.excludedPackages = cycleDetector.excludedPackages;
+        this.granularity = cycleDetector.granularity;
+        this.classConnectionIndex = cycleDetector.classConnectionIndex;
+        this.packageGraph = packageGraph;
+        this.classFilter = classFilter;
+        this.dependencyKinds = dependencyKinds;
+        this.cachedClassConnections = cachedClassConnections;
+        this.baseline = cycleDetector.baseline;
+        this.pool = cycleDetector.pool;
+    }
+
+    /**
+     * @return The node of the class in the package graph or <code>null</code> if its package is excluded or the granularity
+     *         ignores it.
+     */
+    public static String getNode(String className, PackageMatcher excludedPackageMatcher, Granularity granularity) {
+        if (excludedPackageMatcher.matches(ClassDependencies.getPackageName(className))) {
+            return null;
         }
+
+        return granularity.getNode(className);
+    }
+
+    private static long getDeadline(CycleBudget budget) {
+        return budget.getTimeoutMillis() == 0 ? 0 : System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(budget.getTimeoutMillis());
+    }
+
+    private static long getKey(int startNode, int endNode) {
+        return (long) startNode << 32 | endNode;
     }
 
-    private static Cycle toCycle(Path<JavaPackage> path) {
+    private static Cycle toCycle(PackageGraph graph, int[] nodes) {
         Cycle result = new Cycle();
 
-        for (JavaPackage eachPackageNode : path) {
-            result.addInvolvedPackage(eachPackageNode.getName());
+        for (int eachNode : nodes) {
+            result.addInvolvedPackage(graph.getName(eachNode));
         }
+        result.addInvolvedPackage(graph.getName(nodes[0]));
 
         return result;
     }
 
-    public List<Cycle> getPackageCycles() {
-        List<Cycle> result = new ArrayList<>();
+    private static void update(MessageDigest messageDigest, String value) {
+        messageDigest.update(value.getBytes(StandardCharsets.UTF_8));
+        messageDigest.update((byte) '\n');
+    }
 
-        Set<JavaPackage> packages = this.javaClasses.getDefaultPackage().getSubpackagesInTree();
-        for (JavaPackage eachPackage : packages) {
-            if (this.isExcluded(eachPackage)) {
-                continue;
+    /**
+     * The class connections behind a package dependency. They are read from the {@link ClassConnectionIndex} unless they
+     * were looked up in advance for a report, see {@link #findPackageCycles(CycleBudget, CycleMetrics, CycleReporter)}.
+     */
+    public List<Connection<String>> getClassConnections(String startPackage, String endPackage) {
+        return this.getClassConnections(this.packageGraph.getId(startPackage), this.packageGraph.getId(endPackage));
+    }
+
+    /**
+     * @return The strongly connected components with more than one package, the members of each are sorted by their id.
+     */
+    public List<int[]> getCyclicComponents() {
+        List<int[]> result = new ArrayList<>();
+
+        for (int[] eachComponent : StronglyConnectedComponents.find(this.packageGraph)) {
+            if (eachComponent.length > 1) {
+                result.add(eachComponent);
+            }
+        }
+
+        return result;
+    }
+
+    public String getDigest() {
+        try {
+            MessageDigest messageDigest = MessageDigest.getInstance(DIGEST_ALGORITHM);
+
+            update(messageDigest, "@" + this.granularity.getName());
+            if (this.dependencyKinds != DependencyKind.ALL) {
+                update(messageDigest, "%" + this.dependencyKinds);
+            }
+            if (this.excludedPackages != null) {
+                Stream.of(this.excludedPackages).sorted().forEach(excludedPackage -> update(messageDigest, "!" + excludedPackage));
             }
 
-            List<Path<JavaPackage>> dependencyChains = this.getDependencyChains(eachPackage);
-            for (Path<JavaPackage> eachDependencyChain : dependencyChains) {
-                if (eachDependencyChain.containsCycle()) {
-                    result.add(toCycle(eachDependencyChain));
+            for (int node = 0; node < this.packageGraph.getNodeCount(); node++) {
+                update(messageDigest, this.packageGraph.getName(node));
+                for (int edge = this.packageGraph.getStart(node); edge < this.packageGraph.getEnd(node); edge++) {
+                    update(messageDigest, "->" + this.packageGraph.getName(this.packageGraph.getTarget(edge)));
                 }
             }
+
+            return HexFormat.of().formatHex(messageDigest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("Digest algorithm " + DIGEST_ALGORITHM + " is not available.", e);
+        }
+    }
+
+    public Set<String> getInvolvedClasses(Cycle cycle) {
+        Set<String> result = new TreeSet<>();
+
+        List<String> involvedPackages = cycle.getInvolvedPackages();
+        for (int i = 0; i < involvedPackages.size() - 1; i++) {
+            for (Connection<String> eachClassConnection : this.getClassConnections(involvedPackages.get(i), involvedPackages.get(i + 1))) {
+                result.add(eachClassConnection.getStart());
+                result.add(eachClassConnection.getEnd());
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Creates a detector that only counts class dependencies of the given {@link DependencyKind}s, e.g. to ignore
+     * dependencies that only exist in method bodies. No class file is read again: package dependencies that only consist
+     * of other kinds are dropped, and only package dependencies of mixed kinds are weighted again.
+     */
+    public CycleDetector filter(int filterDependencyKinds) {
+        return this.derive(this.classFilter, this.dependencyKinds & filterDependencyKinds);
+    }
+
+    /**
+     * Searches the cycles of some of the {@link #getCyclicComponents() cyclic components} one after the other, e.g. the
+     * components that changed since the last search. The cycles of each component are filtered like in
+     * {@link #findPackageCycles(CycleBudget, CycleMetrics, CycleReporter)}.
+     *
+     * @return The cycles of each component.
+     */
+    public List<List<Cycle>> findCycles(List<int[]> components, CycleBudget budget) {
+        List<List<Cycle>> result = new ArrayList<>(components.size());
+
+        long deadline = getDeadline(budget);
+        Queue<CycleFinder> cycleFinders = new ArrayDeque<>();
+        for (int[] eachComponent : components) {
+            result.add(this.findComponentCycles(eachComponent, budget, deadline, cycleFinders, false).cycles);
         }
 
         return result;
     }
 
+    public List<Cycle> getPackageCycles() {
+        List<Cycle> result = new ArrayList<>();
+
+        try {
+            this.findPackageCycles(CycleBudget.DEFAULT, new CycleMetrics(), (cycle, cycleDetector) -> result.add(cycle), false);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        return result;
+    }
+
+    /**
+     * Reports the cycles of each strongly connected component to the reporter as soon as the component is analyzed.
+     * Cycles that contain all packages of another cycle of the component are not reported.
+     * <p>
+     * The components are independent, so they are searched in parallel on the {@link #setPool(ForkJoinPool) pool}, including
+     * the lookup of the class connections for the reports. The results are reported in the order of the components, so the
+     * reports are the same as with a sequential search. In fail fast mode the components are searched one after the other,
+     * a single component is searched on the calling thread.
+     */
+    public CycleSearchResult findPackageCycles(CycleBudget budget, CycleMetrics metrics, CycleReporter reporter) throws IOException {
+        return this.findPackageCycles(budget, metrics, reporter, true);
+    }
+
+    /**
+     * Suggests the cheapest package dependencies to remove for each strongly connected component, weighted by the number
+     * of class dependencies. The suggestion is a heuristic and not necessarily the minimum.
+     */
+    public List<CycleCut> suggestCuts() {
+        List<CycleCut> result = new ArrayList<>();
+
+        FeedbackArcSet feedbackArcSet = new FeedbackArcSet(this.packageGraph);
+        for (int[] eachComponent : this.getCyclicComponents()) {
+            List<CycleCut.Dependency> dependencies = new ArrayList<>();
+            for (int eachEdge : feedbackArcSet.find(eachComponent)) {
+                int source = this.packageGraph.getSource(eachEdge);
+                dependencies.add(
+                    new CycleCut.Dependency(
+                        this.packageGraph.getName(source),
+                        this.packageGraph.getName(this.packageGraph.getTarget(eachEdge)),
+                        this.packageGraph.getWeight(eachEdge)));
+            }
+            result.add(new CycleCut(this.getNames(eachComponent), dependencies));
+        }
+
+        return result;
+    }
+
+    /**
+     * Cycles of the baseline are neither reported nor used to remove other cycles as redundant, so a cycle that grew
+     * from an accepted cycle is reported.
+     */
+    public void setBaseline(CycleBaseline baseline) {
+        this.baseline = baseline;
+    }
+
+    /**
+     * The pool that searches the strongly connected components in parallel, the common pool by default.
+     */
+    public void setPool(ForkJoinPool pool) {
+        this.pool = pool;
+    }
+
     public void writeCycleFile(List<Cycle> cycles, java.nio.file.Path targetPath) throws IOException {
-        try (BufferedWriter writer = Files.newBufferedWriter(targetPath, Charset.forName("UTF-8"))) {
+        Map<Long, List<Connection<String>>> classConnections = new ConcurrentHashMap<>();
+        this.getPool().submit(() -> cycles.parallelStream().forEach(cycle -> this.cacheClassConnections(cycle, classConnections))).join();
+
+        CycleDetector cachingCycleDetector = new CycleDetector(this, classConnections);
+        try (CycleReporter reporter = new TextCycleReporter(targetPath)) {
             for (Cycle eachCycle : cycles) {
-                writer.write("Cycle");
+                reporter.report(eachCycle, cachingCycleDetector);
+            }
+        }
+    }
+
+    /**
+     * Creates a detector for the dependencies between the classes accepted by the filter, e.g. the classes of some source
+     * sets. The nodes and the class connections are shared with this detector, only the edges are weighted again.
+     */
+    public CycleDetector view(Predicate<String> viewClassFilter) {
+        Predicate<String> combinedClassFilter = this.classFilter == null ? viewClassFilter : this.classFilter.and(viewClassFilter);
+        return this.derive(combinedClassFilter, this.dependencyKinds);
+    }
+
+    public void writeCutFile(List<CycleCut> cuts, java.nio.file.Path targetPath) throws IOException {
+        Files.createDirectories(targetPath.toAbsolutePath().getParent());
+
+        try (BufferedWriter writer = Files.newBufferedWriter(targetPath, StandardCharsets.UTF_8)) {
+            for (CycleCut eachCut : cuts) {
+                writer.write("Cut (" + eachCut + ")" + NEW_LINE);
+                for (CycleCut.Dependency eachDependency : eachCut.getDependencies()) {
+                    writer.write("  " + eachDependency + NEW_LINE);
+                    for (Connection<String> eachClassConnection : this.getClassConnections(eachDependency.getStart(), eachDependency.getEnd())) {
+                        writer.write("    " + eachClassConnection.getStart() + " -> " + eachClassConnection.getEnd() + NEW_LINE);
+                    }
+                }
                 writer.write(NEW_LINE);
-                for (String eachPackage : eachCycle.getInvolvedPackages()) {
-                    indent(writer, 1);
-                    writer.write(eachPackage);
-                    writer.write(NEW_LINE);
+            }
+        }
+    }
+
+    /**
+     * Looks up the class connections between the packages of the cycle that are not cached yet.
+     */
+    private void cacheClassConnections(Cycle cycle, Map<Long, List<Connection<String>>> classConnections) {
+        List<String> involvedPackages = cycle.getInvolvedPackages();
+
+        for (int i = 0; i < involvedPackages.size() - 1; i++) {
+            int startNode = this.packageGraph.getId(involvedPackages.get(i));
+            int endNode = this.packageGraph.getId(involvedPackages.get(i + 1));
+            classConnections.computeIfAbsent(getKey(startNode, endNode), key -> this.getClassConnections(startNode, endNode));
+        }
+    }
+
+    private CycleDetector derive(Predicate<String> derivedClassFilter, int derivedDependencyKinds) {
+        PackageGraph derivedGraph = this.packageGraph.reweight(edge -> {
+            int kinds = this.packageGraph.getKinds(edge);
+            if ((kinds & derivedDependencyKinds) == 0) {
+                return 0;
+            }
+            if ((kinds & ~derivedDependencyKinds) == 0 && derivedClassFilter == this.classFilter) {
+                return this.packageGraph.getWeight(edge);
+            }
+
+            int weight = 0;
+            int source = this.packageGraph.getSource(edge);
+            int target = this.packageGraph.getTarget(edge);
+            for (Connection<String> eachClassConnection : this.classConnectionIndex.get(source, target, derivedDependencyKinds)) {
+                if (derivedClassFilter == null
+                    || derivedClassFilter.test(eachClassConnection.getStart()) && derivedClassFilter.test(eachClassConnection.getEnd())) {
+                    weight++;
                 }
+            }
+            return weight;
+        }, derivedDependencyKinds);
 
-                writer.write(NEW_LINE);
-                indent(writer, 1);
-                writer.write("Involved Classes From Each Package");
-                writer.write(NEW_LINE);
+        return new CycleDetector(this, derivedGraph, derivedClassFilter, derivedDependencyKinds);
+    }
 
-                List<String> involvedPackages = eachCycle.getInvolvedPackages();
-                for (int i = 0; i < involvedPackages.size() - 1; i++) {
-                    JavaPackage startPackage = this.getPackage(involvedPackages.get(i));
-                    JavaPackage endPackage = this.getPackage(involvedPackages.get(i + 1));
-
-                    indent(writer, 2);
-                    writer.write(startPackage.getName());
-                    writer.write(NEW_LINE);
-
-                    Set<Connection<JavaClass>> classConnections = this.getClassConnections(startPackage, endPackage);
-                    for (Connection<JavaClass> eachClassConnection : classConnections) {
-                        indent(writer, 3);
-                        writer.write(eachClassConnection.getStart().getName());
-                        writer.write(" -> ");
-                        writer.write(eachClassConnection.getEnd().getName());
-                        writer.write(NEW_LINE);
-                    }
+    private ComponentCycles findComponentCycles(int[] component, CycleBudget budget, long deadline, Queue<CycleFinder> cycleFinders,
+            boolean cacheClassConnections) {
+        CycleFinder cycleFinder = cycleFinders.poll();
+        if (cycleFinder == null) {
+            cycleFinder = budget.getStrategy().createFinder(this.packageGraph);
+        }
 
-                    writer.write(NEW_LINE);
+        try {
+            AcceptedCycles acceptedCycles = this.getAcceptedCycles();
+            boolean timedOut = deadline != 0 && System.nanoTime() - deadline > 0;
+            List<int[]> cycles = Collections.emptyList();
+            if (!timedOut) {
+                cycles = cycleFinder.find(component, budget.getMaxCyclesPerComponent(), budget.getMaxCycleLength(), deadline, acceptedCycles);
+                timedOut = cycleFinder.isTimedOut();
+            }
+            int foundCycles = cycles.size();
+
+            Reason reason = null;
+            if (timedOut) {
+                reason = Reason.TIMEOUT;
+            } else if (cycleFinder.isCycleLimitReached()) {
+                reason = budget.isFailFast() && foundCycles > 0 ? Reason.FAIL_FAST : Reason.CYCLE_LIMIT;
+            }
+
+            if (cycles.isEmpty() && (timedOut || budget.getMaxCycleLength() < component.length)) {
+                // every strongly connected component has a cycle, report one regardless of the budget unless it is accepted
+                cycles = cycleFinder.find(component, 1, Integer.MAX_VALUE, 0, acceptedCycles);
+                if (reason == null && !cycles.isEmpty()) {
+                    reason = Reason.CYCLE_LENGTH;
                 }
+            }
 
-                writer.write(NEW_LINE);
+            ComponentCycles result = new ComponentCycles();
+            if (reason != null) {
+                result.incompleteComponent = new IncompleteComponent(this.getNames(component), foundCycles, reason);
+            }
+
+            List<Cycle> componentCycles = new ArrayList<>(cycles.size());
+            for (int[] eachCycle : cycles) {
+                componentCycles.add(toCycle(this.packageGraph, eachCycle));
             }
+            result.rawCycleCount = componentCycles.size();
+            if (this.baseline != null) {
+                componentCycles.removeIf(this.baseline::isAccepted);
+            }
+
+            result.cycles = RedundantCycles.remove(componentCycles);
+            if (cacheClassConnections) {
+                for (Cycle eachCycle : result.cycles) {
+                    this.cacheClassConnections(eachCycle, result.classConnections);
+                }
+            }
+            return result;
+        } finally {
+            cycleFinders.add(cycleFinder);
         }
     }
 
-    private Set<Connection<JavaClass>> getClassConnections(JavaPackage startPackage, JavaPackage endPackage) {
-        Set<Connection<JavaClass>> result = new HashSet<>();
-
-        Set<JavaClass> startClasses = startPackage.getClasses();
-        Set<JavaClass> endClasses = endPackage.getClasses();
+    private CycleSearchResult findPackageCycles(CycleBudget budget, CycleMetrics metrics, CycleReporter reporter, boolean cacheClassConnections)
+            throws IOException {
+        CycleSearchResult result = new CycleSearchResult();
+        long deadline = getDeadline(budget);
+        int rawCycleCount = 0;
+
+        List<int[]> components = this.getCyclicComponents();
+
+        // the finders keep state during a search, so every thread borrows its own
+        Queue<CycleFinder> cycleFinders = new ConcurrentLinkedQueue<>();
+        List<ForkJoinTask<ComponentCycles>> tasks = new ArrayList<>();
+        if (!budget.isFailFast() && components.size() > 1) {
+            ForkJoinPool searchPool = this.getPool();
+            for (int[] eachComponent : components) {
+                tasks.add(searchPool.submit(() -> this.findComponentCycles(eachComponent, budget, deadline, cycleFinders, cacheClassConnections)));
+            }
+        }
 
-        for (JavaClass eachStartClass : startClasses) {
-            Set<Dependency> connections = eachStartClass.getDirectDependenciesFromSelf();
-            for (Dependency eachConnection : connections) {
-                if (!endClasses.contains(eachConnection.getTargetClass())) {
+        try {
+            for (int i = 0; i < components.size(); i++) {
+                if (budget.isFailFast() && result.getCycleCount() > 0) {
+                    result.addIncompleteComponent(new IncompleteComponent(this.getNames(components.get(i)), 0, Reason.FAIL_FAST));
                     continue;
                 }
 
-                result.add(new Connection<>(eachStartClass, eachConnection.getTargetClass()));
+                ComponentCycles componentCycles;
+                if (tasks.isEmpty()) {
+                    componentCycles = this.findComponentCycles(components.get(i), budget, deadline, cycleFinders, cacheClassConnections);
+                } else {
+                    componentCycles = tasks.get(i).join();
+                    tasks.set(i, null);
+                }
+                if (componentCycles.incompleteComponent != null) {
+                    result.addIncompleteComponent(componentCycles.incompleteComponent);
+                }
+                rawCycleCount += componentCycles.rawCycleCount;
+
+                CycleDetector reportingCycleDetector = cacheClassConnections ? new CycleDetector(this, componentCycles.classConnections) : this;
+                for (Cycle eachCycle : componentCycles.cycles) {
+                    reporter.report(eachCycle, reportingCycleDetector);
+                    result.addCycle();
+                }
             }
+        } finally {
+            for (ForkJoinTask<ComponentCycles> eachTask : tasks) {
+                if (eachTask != null) {
+                    eachTask.cancel(false);
+                }
+            }
+        }
+
+        long exploredPaths = 0;
+        for (CycleFinder eachCycleFinder : cycleFinders) {
+            exploredPaths += eachCycleFinder.getExploredPaths();
         }
 
+        metrics.count("packages", this.packageGraph.getNodeCount());
+        metrics.count("packageDependencies", this.packageGraph.getEdgeCount());
+        metrics.count("cyclicComponents", components.size());
+        metrics.count("incompleteComponents", result.getIncompleteComponents().size());
+        metrics.count("exploredPaths", exploredPaths);
+        metrics.count("rawCycles", rawCycleCount);
+        metrics.count("uniqueCycles", result.getCycleCount());
         return result;
     }
 
-    private List<Path<JavaPackage>> getDependencyChains(JavaPackage packageNode) {
-        return this.getDependencyChains(new Path<>(packageNode));
+    /**
+     * Accepted cycles are skipped during the search, so they cannot hide other cycles behind the budget. A recording
+     * baseline accepts every cycle, so its cycles are only recorded after the search.
+     */
+    private AcceptedCycles getAcceptedCycles() {
+        if (this.baseline == null) {
+            return null;
+        }
+
+        CycleBaseline searchBaseline = this.baseline;
+        return new AcceptedCycles() {
+
+            @Override
+            public boolean isAccepted(int[] cycle) {
+                return !searchBaseline.isRecording() && searchBaseline.isAccepted(toCycle(CycleDetector.this.packageGraph, cycle));
+            }
+        };
     }
 
-    private List<Path<JavaPackage>> getDependencyChains(Path<JavaPackage> dependencyChain) {
-        if (dependencyChain.containsCycle()) {
-            return Collections.singletonList(dependencyChain);
+    private List<Connection<String>> getClassConnections(int startNode, int endNode) {
+        if (this.cachedClassConnections != null) {
+            List<Connection<String>> cachedResult = this.cachedClassConnections.get(getKey(startNode, endNode));
+            if (cachedResult != null) {
+                return cachedResult;
+            }
         }
 
-        Set<JavaPackage> dependencies = dependencyChain.getLastElement().getPackageDependenciesFromThisPackage();
-        if (dependencies == null || dependencies.isEmpty()) {
-            return Collections.singletonList(dependencyChain);
+        List<Connection<String>> result = this.classConnectionIndex.get(startNode, endNode, this.dependencyKinds);
+        if (this.classFilter == null) {
+            return result;
         }
 
-        List<Path<JavaPackage>> result = new ArrayList<>();
+        return result.stream()
+            .filter(classConnection -> this.classFilter.test(classConnection.getStart()) && this.classFilter.test(classConnection.getEnd()))
+            .toList();
+    }
+
+    private List<String> getNames(int[] component) {
+        List<String> result = new ArrayList<>(component.length);
 
-        for (JavaPackage eachDependency : dependencies) {
-            result.addAll(this.getDependencyChains(dependencyChain.createChild(eachDependency)));
+        for (int eachNode : component) {
+            result.add(this.packageGraph.getName(eachNode));
         }
+        Collections.sort(result);
 
         return result;
     }
 
-    private JavaPackage getPackage(String packageName) {
-        return this.javaClasses.getPackage(packageName);
+    private ForkJoinPool getPool() {
+        return this.pool == null ? ForkJoinPool.commonPool() : this.pool;
     }
 
-    private boolean isExcluded(JavaPackage javaPackage) {
-        if (this.excludedPackages == null || this.excludedPackages.length == 0) {
-            return false;
-        }
+    /**
+     * The result of the search in one strongly connected component.
+     */
+    private static final class ComponentCycles {
 
-        String name = javaPackage.getName();
-        return Stream.of(this.excludedPackages).anyMatch(excludedPackage -> name.equals(excludedPackage));
+        private final Map<Long, List<Connection<String>>> classConnections = new HashMap<>();
+        private List<Cycle> cycles;
+        private IncompleteComponent incompleteComponent;
+        private int rawCycleCount;
     }
 }
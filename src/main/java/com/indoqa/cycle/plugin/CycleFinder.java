@@ -0,0 +1,49 @@
+/*
+ * Licensed to the Indoqa Software Design und Beratung GmbH (Indoqa) under
+ * one or more contributor license agreements. See the NOTICE file distributed
+ * with this work for additional information regarding copyright ownership.
+ * Indoqa licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.indoqa.cycle.plugin;
+
+import java.util.List;
+
+/**
+ * Finds cycles within a strongly connected component of a {@link PackageGraph}. Cycles are returned as the global node
+ * ids of the loop, without repeating the first node.
+ */
+public interface CycleFinder {
+
+    /**
+     * @param deadline The {@link System#nanoTime()} at which the search stops, 0 for no deadline.
+     */
+    default List<int[]> find(int[] component, int maxCycles, int maxLength, long deadline) {
+        return this.find(component, maxCycles, maxLength, deadline, null);
+    }
+
+    /**
+     * @param deadline The {@link System#nanoTime()} at which the search stops, 0 for no deadline.
+     * @param acceptedCycles The cycles to skip, e.g. of a baseline, or null.
+     */
+    List<int[]> find(int[] component, int maxCycles, int maxLength, long deadline, AcceptedCycles acceptedCycles);
+
+    long getExploredPaths();
+
+    /**
+     * @return <code>true</code> if the last search stopped at the maximum number of cycles, e.g. after enumerating too many
+     *         accepted cycles.
+     */
+    boolean isCycleLimitReached();
+
+    boolean isTimedOut();
+}
@@ -0,0 +1,178 @@
+/*
+ * Licensed to the Indoqa Software Design und Beratung GmbH (Indoqa) under
+ * one or more contributor license agreements. See the NOTICE file distributed
+ * with this work for additional information regarding copyright ownership.
+ * Indoqa licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.indoqa.cycle.plugin;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Records wall time and allocated bytes of the analysis phases and counters like imported classes or explored paths.
+ * Allocation is summed over all threads alive at the end of a phase, so work done in the import pool is included.
+ */
+public class CycleMetrics {
+
+    private final Map<String, Phase> phases = new LinkedHashMap<>();
+    private final Map<String, Long> counters = new LinkedHashMap<>();
+
+    private static Map<Long, Long> getThreadAllocations() {
+        if (!(ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean)) {
+            return null;
+        }
+
+        com.sun.management.ThreadMXBean threadMXBean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        if (!threadMXBean.isThreadAllocatedMemorySupported() || !threadMXBean.isThreadAllocatedMemoryEnabled()) {
+            return null;
+        }
+
+        long[] threadIds = threadMXBean.getAllThreadIds();
+        long[] allocatedBytes = threadMXBean.getThreadAllocatedBytes(threadIds);
+
+        Map<Long, Long> result = new HashMap<>();
+        for (int i = 0; i < threadIds.length; i++) {
+            if (allocatedBytes[i] >= 0) {
+                result.put(threadIds[i], allocatedBytes[i]);
+            }
+        }
+        return result;
+    }
+
+    private static long getAllocationDelta(Map<Long, Long> start, Map<Long, Long> end) {
+        if (start == null || end == null) {
+            return -1;
+        }
+
+        long result = 0;
+        for (Map.Entry<Long, Long> eachThread : end.entrySet()) {
+            result += eachThread.getValue() - start.getOrDefault(eachThread.getKey(), 0L);
+        }
+        return result;
+    }
+
+    public void count(String name, long value) {
+        this.counters.merge(name, value, Long::sum);
+    }
+
+    public Map<String, Long> getCounters() {
+        return this.counters;
+    }
+
+    public void log(Consumer<String> log) {
+        for (Phase eachPhase : this.phases.values()) {
+            StringBuilder stringBuilder = new StringBuilder();
+            stringBuilder.append(String.format("%-20s %8d ms", eachPhase.getName(), TimeUnit.NANOSECONDS.toMillis(eachPhase.getWallTime())));
+            if (eachPhase.getAllocatedBytes() >= 0) {
+                stringBuilder.append(String.format(" %10d KB allocated", eachPhase.getAllocatedBytes() / 1024));
+            }
+            log.accept(stringBuilder.toString());
+        }
+
+        for (Map.Entry<String, Long> eachCounter : this.counters.entrySet()) {
+            log.accept(String.format("%-20s %8d", eachCounter.getKey(), eachCounter.getValue()));
+        }
+    }
+
+    /**
+     * Runs the task as the phase with the name. Several runs of the same phase are summed.
+     */
+    public <T, E extends Exception> T time(String name, Task<T, E> task) throws E {
+        Phase phase = new Phase(name);
+        try {
+            return task.run();
+        } finally {
+            phase.stop();
+        }
+    }
+
+    public void write(Path targetPath) throws IOException {
+        Files.createDirectories(targetPath.getParent());
+
+        try (BufferedWriter writer = Files.newBufferedWriter(targetPath, StandardCharsets.UTF_8)) {
+            writer.write("{\n  \"phases\": {");
+            String separator = "\n";
+            for (Phase eachPhase : this.phases.values()) {
+                writer.write(separator);
+                writer.write("    " + Json.quote(eachPhase.getName()) + ": {\"wallTimeNanos\": " + eachPhase.getWallTime() + ", \"allocatedBytes\": "
+                    + eachPhase.getAllocatedBytes() + "}");
+                separator = ",\n";
+            }
+            writer.write("\n  },\n  \"counters\": {");
+            separator = "\n";
+            for (Map.Entry<String, Long> eachCounter : this.counters.entrySet()) {
+                writer.write(separator);
+                writer.write("    " + Json.quote(eachCounter.getKey()) + ": " + eachCounter.getValue());
+                separator = ",\n";
+            }
+            writer.write("\n  }\n}\n");
+        }
+    }
+
+    public final class Phase {
+
+        private final String name;
+        private final long startTime;
+        private final Map<Long, Long> startAllocatedBytes;
+
+        private long wallTime;
+        private long allocatedBytes;
+
+        private Phase(String name) {
+            super();
+            this.name = name;
+            this.startAllocatedBytes = getThreadAllocations();
+            this.startTime = System.nanoTime();
+        }
+
+        public long getAllocatedBytes() {
+            return this.allocatedBytes;
+        }
+
+        public String getName() {
+            return this.name;
+        }
+
+        public long getWallTime() {
+            return this.wallTime;
+        }
+
+        private Phase add(Phase other) {
+            this.wallTime += other.wallTime;
+            this.allocatedBytes = this.allocatedBytes < 0 || other.allocatedBytes < 0 ? -1 : this.allocatedBytes + other.allocatedBytes;
+            return this;
+        }
+
+        private void stop() {
+            this.wallTime = System.nanoTime() - this.startTime;
+            this.allocatedBytes = getAllocationDelta(this.startAllocatedBytes, getThreadAllocations());
+            CycleMetrics.this.phases.merge(this.name, this, Phase::add);
+        }
+    }
+
+    @FunctionalInterface
+    public interface Task<T, E extends Exception> {
+
+        T run() throws E;
+    }
+}
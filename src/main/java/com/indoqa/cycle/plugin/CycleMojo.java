@@ -17,12 +17,18 @@
 package com.indoqa.cycle.plugin;
 
 import java.io.File;
-import java.nio.file.Path;
+import java.io.IOException;
+import java.nio.file.Files;
 import java.util.ArrayList;
-import java.util.Collections;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
-import org.apache.maven.plugin.AbstractMojo;
 import org.apache.maven.plugin.MojoExecutionException;
 import org.apache.maven.plugin.MojoFailureException;
 import org.apache.maven.plugins.annotations.LifecyclePhase;
@@ -30,128 +36,389 @@ import org.apache.maven.plugins.annotations.Mojo;
 import org.apache.maven.plugins.annotations.Parameter;
 import org.apache.maven.project.MavenProject;
 
-@Mojo(name = "analyze", defaultPhase = LifecyclePhase.TEST)
-public class CycleMojo extends AbstractMojo {
+@Mojo(name = CycleMojo.GOAL, defaultPhase = LifecyclePhase.TEST, threadSafe = true)
+public class CycleMojo extends AbstractCycleMojo {
 
-    private static final String SYSTEM_PROPERTY_SKIP = "skipCycles";
-
-    private static final String[] RELEVANT_PACKAGINGS = {"jar", "war", "bundle"};
+    public static final String GOAL = "analyze";
 
     @Parameter(property = "project.build.outputDirectory")
     private File classesDirectory;
 
+    @Parameter(property = "project.build.testOutputDirectory")
+    private File testClassesDirectory;
+
+    @Parameter(property = "cycleClassesDirectories", required = false)
+    private File[] additionalClassesDirectories;
+
+    @Parameter(property = "cycleTestClassesDirectories", required = false)
+    private File[] additionalTestClassesDirectories;
+
+    @Parameter(defaultValue = "main", property = "cycleViews", required = false)
+    private String[] views;
+
     @Parameter(property = "project.build.directory")
     private File targetDirectory;
 
     @Parameter(defaultValue = "${project}", readonly = true)
     private MavenProject mavenProject;
 
-    @Parameter(property = "excludedPackages")
-    private String[] excludedPackages;
+    @Parameter(property = "cycleArchives", required = false)
+    private File[] archives;
 
-    @Parameter(defaultValue = "false", property = "skip", required = false)
-    private boolean skip;
+    @Parameter(defaultValue = "false", property = "cycleAnalyzeArtifact", required = false)
+    private boolean analyzeArtifact;
 
-    private static boolean isRedundant(Cycle cycle, List<Cycle> otherCycles) {
-        for (Cycle eachOtherCycle : otherCycles) {
-            if (cycle.contains(eachOtherCycle)) {
-                return true;
-            }
+    @Override
+    public void execute() throws MojoExecutionException, MojoFailureException {
+        if (this.isSkipped()) {
+            return;
         }
 
-        return false;
-    }
+        if (!isRelevant(this.mavenProject)) {
+            this.getLog().info("Ignoring project with packaging '" + this.mavenProject.getPackaging() + "'");
+            return;
+        }
 
-    private static List<Cycle> removeRedundantCycles(List<Cycle> cycles) {
-        Collections.sort(cycles, Cycle.LONGEST_FIRST);
-        List<Cycle> result = new ArrayList<>();
+        List<SourceSet> sourceSetViews = this.getSourceSetViews();
+        List<File> archiveFiles = this.getArchiveFiles();
+        Map<File, SourceSet> classRoots = new LinkedHashMap<>();
+        if (!archiveFiles.isEmpty()) {
+            this.getLog().info("Analyzing class files in " + archiveFiles + ".");
+            if (sourceSetViews.removeIf(view -> view.includes(SourceSet.TEST))) {
+                this.getLog().warn("Test classes are not analyzed in archives.");
+            }
+            if (sourceSetViews.isEmpty()) {
+                return;
+            }
+        } else {
+            classRoots = this.getClassRoots(sourceSetViews);
+            this.getLog().info("Analyzing class files in " + classRoots.keySet() + ".");
 
-        for (int i = 0; i < cycles.size(); i++) {
-            Cycle cycle = cycles.get(i);
-            if (isRedundant(cycle, cycles.subList(i + 1, cycles.size()))) {
-                continue;
+            if (classRoots.isEmpty()) {
+                this.getLog().warn("Directory does not exist!");
+                return;
             }
-            result.add(cycle);
         }
 
-        return result;
-    }
-
-    @Override
-    public void execute() throws MojoExecutionException, MojoFailureException {
-        if (this.skip || System.getProperties().containsKey(SYSTEM_PROPERTY_SKIP)) {
-            this.getLog().info("Package cycle test is skipped.");
+        File inputDigestFile = getInputDigestFile(this.targetDirectory, GOAL);
+        String inputDigest = this.getInputDigest(archiveFiles, classRoots.keySet());
+        if (inputDigest != null && inputDigest.equals(InputDigest.read(inputDigestFile))) {
+            this.getLog().info("Class files and configuration are unchanged since the last successful analysis.");
             return;
         }
 
-        if (!this.shouldBeAnalyzed()) {
-            this.getLog().info("Ignoring project with packaging '" + this.mavenProject.getPackaging() + "'");
-            return;
+        List<CycleSummary> summaries = this.detectPackageCycles(archiveFiles, classRoots, sourceSetViews);
+        List<String> messages = new ArrayList<>();
+        for (CycleSummary eachSummary : summaries) {
+            if (!eachSummary.isEmpty()) {
+                messages.add(eachSummary.getMessage());
+            }
         }
 
-        this.getLog().info("Analyzing class files in '" + this.classesDirectory.getAbsolutePath() + "'.");
+        try {
+            if (messages.isEmpty()) {
+                if (inputDigest != null) {
+                    InputDigest.write(inputDigestFile, inputDigest);
+                }
+                return;
+            }
 
-        if (!this.classesDirectory.exists()) {
-            this.getLog().warn("Directory does not exist!");
-            return;
+            Files.deleteIfExists(inputDigestFile.toPath());
+        } catch (IOException e) {
+            throw new MojoExecutionException("Failed to update " + inputDigestFile.getAbsolutePath(), e);
         }
 
-        List<Cycle> cycles = this.getPackageCycles();
-        if (cycles.isEmpty()) {
+        throw new MojoExecutionException(String.join(System.lineSeparator(), messages));
+    }
+
+    private static void addClassRoots(Map<File, SourceSet> classRoots, SourceSet sourceSet, File... directories) {
+        if (directories == null) {
             return;
         }
 
-        throw new MojoExecutionException(this.getFormattedCycles(cycles));
+        for (File eachDirectory : directories) {
+            if (eachDirectory != null && eachDirectory.isDirectory()) {
+                classRoots.putIfAbsent(eachDirectory, sourceSet);
+            }
+        }
     }
 
-    private Path getCycleFile() {
-        return this.targetDirectory.toPath().resolve("cycles.txt");
+    private static String getDigestKey(Granularity granularity, SourceSet view) {
+        if (view == SourceSet.MAIN) {
+            return granularity.getName();
+        }
+
+        return granularity.getName() + "/" + view.getName();
     }
 
-    private String getFormattedCycles(List<Cycle> cycles) {
-        StringBuilder stringBuilder = new StringBuilder();
+    private static String getHeadline(SourceSet view) {
+        if (view == SourceSet.MAIN) {
+            return "Detected package cycle:";
+        }
+
+        return "Detected package cycle in the " + view.getName() + " classes:";
+    }
 
-        for (Cycle eachCycle : cycles) {
-            stringBuilder.append("\n");
+    private static List<ClassDependencies> importArchives(List<File> archiveFiles, ForkJoinPool pool) throws IOException {
+        // the first archive containing a class wins, like on a class path
+        Map<String, ClassDependencies> result = new LinkedHashMap<>();
 
-            stringBuilder.append("Detected package cycle:\n");
-            for (String eachInvolvedPackage : eachCycle.getInvolvedPackages()) {
-                stringBuilder.append("    ");
-                stringBuilder.append(eachInvolvedPackage);
-                stringBuilder.append("\n");
+        for (File eachArchiveFile : archiveFiles) {
+            for (ClassDependencies eachClassDependencies : ArchiveScanner.scan(eachArchiveFile, pool)) {
+                result.putIfAbsent(eachClassDependencies.getClassName(), eachClassDependencies);
             }
         }
-        stringBuilder.append("\n");
-        stringBuilder.append("See ");
-        stringBuilder.append(this.getCycleFile().toAbsolutePath());
-        stringBuilder.append(" for involved classes.");
 
-        return stringBuilder.toString();
+        return new ArrayList<>(result.values());
     }
 
-    private List<Cycle> getPackageCycles() throws MojoExecutionException {
+    /**
+     * @param sourceSetsByClass Receives the mask of the source sets containing each class.
+     */
+    private static List<ClassDependencies> importClassRoots(DependencyCache dependencyCache, Map<File, SourceSet> classRoots,
+            Map<String, Integer> sourceSetsByClass) throws IOException {
+        List<ClassDependencies> result = new ArrayList<>();
+
+        List<SourceSet> rootSourceSets = new ArrayList<>(classRoots.values());
+        List<List<ClassDependencies>> classDependenciesByRoot = dependencyCache.update(new ArrayList<>(classRoots.keySet()));
+        for (int i = 0; i < classDependenciesByRoot.size(); i++) {
+            int sourceSetMask = rootSourceSets.get(i).getMask();
+            for (ClassDependencies eachClassDependencies : classDependenciesByRoot.get(i)) {
+                // the first root containing a class wins, like on a class path
+                Integer previousMask = sourceSetsByClass.put(eachClassDependencies.getClassName(), sourceSetMask);
+                if (previousMask == null) {
+                    result.add(eachClassDependencies);
+                } else {
+                    sourceSetsByClass.put(eachClassDependencies.getClassName(), previousMask | sourceSetMask);
+                }
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Imports all class roots in one pass and analyzes each view on the shared package graph. The classes are tagged with
+     * the source set of their root, a view only contains the dependencies between classes of its source sets.
+     */
+    private List<CycleSummary> detectPackageCycles(List<File> archiveFiles, Map<File, SourceSet> classRoots, List<SourceSet> sourceSetViews)
+            throws MojoExecutionException {
+        ClassConnectionIndex classConnectionIndex = this.createClassConnectionIndex(this.targetDirectory);
+        ForkJoinPool pool = this.createPool();
+        CycleMetrics metrics = new CycleMetrics();
+        List<CycleSummary> summaries = new ArrayList<>();
+
         try {
-            CycleDetector cycleDetector = new CycleDetector(this.classesDirectory, this.excludedPackages);
+            // archives are read directly and not cached
+            DependencyCache dependencyCache = null;
+            List<ClassDependencies> classDependencies;
+            Map<String, Integer> sourceSetsByClass = new HashMap<>();
+            if (archiveFiles.isEmpty()) {
+                DependencyCache loadedDependencyCache = metrics.time(
+                    "import",
+                    () -> this.loadDependencyCache(this.targetDirectory, this.createImporter(pool), pool));
+                classDependencies = metrics.time("import", () -> importClassRoots(loadedDependencyCache, classRoots, sourceSetsByClass));
+                dependencyCache = loadedDependencyCache;
+            } else {
+                classDependencies = metrics.time("import", () -> importArchives(archiveFiles, pool));
+            }
+            metrics.count("classes", classDependencies.size());
+            if (dependencyCache != null) {
+                metrics.count("importedClasses", dependencyCache.getImportedCount());
+                metrics.count("cachedClasses", dependencyCache.getCachedCount());
+            }
+
+            Granularity granularity = this.createGranularity();
+            int dependencyKinds = this.createDependencyKinds();
+            Map<SourceSet, CycleDetector> viewCycleDetectors = metrics.time("buildGraph", () -> {
+                CycleDetector cycleDetector = new CycleDetector(classDependencies, this.excludedPackages, granularity, classConnectionIndex);
+                if (dependencyKinds != DependencyKind.ALL) {
+                    cycleDetector = cycleDetector.filter(dependencyKinds);
+                }
+
+                int importedSourceSets = 0;
+                for (SourceSet eachSourceSet : classRoots.values()) {
+                    importedSourceSets |= eachSourceSet.getMask();
+                }
+                Map<SourceSet, CycleDetector> result = new LinkedHashMap<>();
+                for (SourceSet eachView : sourceSetViews) {
+                    if ((eachView.getMask() & importedSourceSets) == importedSourceSets) {
+                        result.put(eachView, cycleDetector);
+                    } else {
+                        result.put(eachView, cycleDetector.view(className -> (sourceSetsByClass.get(className) & eachView.getMask()) != 0));
+                    }
+                }
+                return result;
+            });
 
-            List<Cycle> packageCycles = cycleDetector.getPackageCycles();
-            packageCycles = removeRedundantCycles(packageCycles);
-            if (!packageCycles.isEmpty()) {
-                cycleDetector.writeCycleFile(packageCycles, this.getCycleFile());
+            CycleBaseline baseline = this.loadBaseline();
+            Map<SourceSet, String> digests = new LinkedHashMap<>();
+            boolean verified = dependencyCache != null && !this.updateBaseline;
+            for (Map.Entry<SourceSet, CycleDetector> eachView : viewCycleDetectors.entrySet()) {
+                eachView.getValue().setBaseline(baseline);
+                eachView.getValue().setPool(pool);
+
+                String digest = eachView.getValue().getDigest();
+                if (baseline != null) {
+                    digest += "+" + baseline.getDigest();
+                }
+                digests.put(eachView.getKey(), digest);
+                verified &= dependencyCache != null && digest.equals(dependencyCache.getVerifiedDigest(getDigestKey(granularity, eachView.getKey())));
+            }
+            if (verified) {
+                this.getLog().info("Package dependencies are unchanged since the last successful analysis.");
+                this.saveDependencyCache(this.targetDirectory, dependencyCache);
+                this.reportMetrics(metrics);
+                return summaries;
+            }
+
+            if (this.lowMemory) {
+                // only the package graph is needed from here on, the verified digests are not recorded
+                if (dependencyCache != null) {
+                    this.saveDependencyCache(this.targetDirectory, dependencyCache);
+                }
+                dependencyCache = null;
+                classDependencies.clear();
+            }
+
+            CycleSearchResult searchResult = new CycleSearchResult();
+            for (Map.Entry<SourceSet, CycleDetector> eachView : viewCycleDetectors.entrySet()) {
+                SourceSet view = eachView.getKey();
+                CycleSummary summary = new CycleSummary(this.summaryLimit, cycle -> getHeadline(view));
+                summaries.add(summary);
+
+                CycleSearchResult viewSearchResult = metrics.time("detectCycles", () -> {
+                    try (CycleReporter reporter = this.createReporter(this.targetDirectory, view.getFileName("cycles"), summary)) {
+                        return eachView.getValue().findPackageCycles(this.createBudget(), metrics, reporter);
+                    }
+                });
+                this.logIncompleteComponents(viewSearchResult);
+                for (CycleSearchResult.IncompleteComponent eachIncompleteComponent : viewSearchResult.getIncompleteComponents()) {
+                    searchResult.addIncompleteComponent(eachIncompleteComponent);
+                }
+
+                if (!summary.isEmpty()) {
+                    this.suggestCuts(eachView.getValue(), this.targetDirectory, view.getFileName("cycle-cuts"), metrics);
+                }
+
+                if (dependencyCache != null) {
+                    dependencyCache.setVerifiedDigest(getDigestKey(granularity, view), summary.isEmpty() ? digests.get(view) : null);
+                }
             }
+            this.completeBaseline(baseline, searchResult);
 
-            return packageCycles;
+            if (dependencyCache != null) {
+                this.saveDependencyCache(this.targetDirectory, dependencyCache);
+            }
+
+            this.reportMetrics(metrics);
+            return summaries;
+        } catch (MojoExecutionException e) {
+            throw e;
         } catch (Exception e) {
             throw new MojoExecutionException("Failed to detect package cycles!", e);
+        } finally {
+            pool.shutdown();
+            classConnectionIndex.close();
+        }
+    }
+
+    private List<File> getArchiveFiles() throws MojoExecutionException {
+        List<File> result = new ArrayList<>();
+
+        if (this.analyzeArtifact) {
+            File artifactFile = this.mavenProject.getArtifact().getFile();
+            if (artifactFile == null || !artifactFile.isFile()) {
+                throw new MojoExecutionException("The artifact of " + this.mavenProject.getArtifactId() + " has not been packaged yet.");
+            }
+            result.add(artifactFile);
+        }
+
+        if (this.archives != null) {
+            for (File eachArchive : this.archives) {
+                if (!eachArchive.isFile()) {
+                    throw new MojoExecutionException("Archive '" + eachArchive.getAbsolutePath() + "' does not exist.");
+                }
+                result.add(eachArchive);
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * @return The existing class directories of the source sets of the views, the main classes first.
+     */
+    private Map<File, SourceSet> getClassRoots(List<SourceSet> sourceSetViews) {
+        Map<File, SourceSet> result = new LinkedHashMap<>();
+
+        for (SourceSet eachView : sourceSetViews) {
+            if (eachView.includes(SourceSet.MAIN)) {
+                addClassRoots(result, SourceSet.MAIN, this.classesDirectory);
+                addClassRoots(result, SourceSet.MAIN, this.additionalClassesDirectories);
+            }
         }
+        for (SourceSet eachView : sourceSetViews) {
+            if (eachView.includes(SourceSet.TEST)) {
+                addClassRoots(result, SourceSet.TEST, this.testClassesDirectory);
+                addClassRoots(result, SourceSet.TEST, this.additionalTestClassesDirectories);
+            }
+        }
+
+        return result;
     }
 
-    private boolean shouldBeAnalyzed() {
-        for (String eachRelevantPackaging : RELEVANT_PACKAGINGS) {
-            if (this.mavenProject.getPackaging().equals(eachRelevantPackaging)) {
-                return true;
+    /**
+     * @return The digest of the class files and the configuration or <code>null</code> if the analysis must not be
+     *         skipped.
+     */
+    private String getInputDigest(List<File> archiveFiles, Collection<File> classRoots) throws MojoExecutionException {
+        if (!this.useCache || this.updateBaseline) {
+            return null;
+        }
+
+        try {
+            InputDigest result = this.createInputDigest();
+            result.add("views", this.views);
+
+            for (File eachClassRoot : classRoots) {
+                result.add("classes", eachClassRoot.getAbsolutePath());
+                result.addClassFiles(eachClassRoot);
+            }
+            for (File eachArchiveFile : archiveFiles) {
+                result.addFile("archive", eachArchiveFile);
             }
+
+            return result.getValue();
+        } catch (IOException e) {
+            throw new MojoExecutionException("Failed to compute the digest of the class files in " + classRoots, e);
         }
+    }
+
+    private List<SourceSet> getSourceSetViews() throws MojoExecutionException {
+        List<SourceSet> result = new ArrayList<>();
 
-        return false;
+        for (String eachView : this.views) {
+            SourceSet view = SourceSet.get(eachView);
+            if (view == null) {
+                throw new MojoExecutionException("Unknown view '" + eachView + "'. Use one of "
+                    + Stream.of(SourceSet.values()).map(SourceSet::getName).collect(Collectors.joining(", ")) + ".");
+            }
+            if (!result.contains(view)) {
+                result.add(view);
+            }
+        }
+
+        return result;
+    }
+
+    private void reportMetrics(CycleMetrics metrics) throws IOException {
+        if (this.logMetrics) {
+            this.getLog().info("Cycle analysis metrics:");
+            metrics.log(this.getLog()::info);
+        } else if (this.getLog().isDebugEnabled()) {
+            metrics.log(this.getLog()::debug);
+        }
+        metrics.write(this.targetDirectory.toPath().resolve("cycle-metrics.json"));
     }
 }
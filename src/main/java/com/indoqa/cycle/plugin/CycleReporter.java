@@ -0,0 +1,35 @@
+/*
+ * Licensed to the Indoqa Software Design und Beratung GmbH (Indoqa) under
+ * one or more contributor license agreements. See the NOTICE file distributed
+ * with this work for additional information regarding copyright ownership.
+ * Indoqa licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.indoqa.cycle.plugin;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+ * Receives the package cycles while they are detected. The class connections between the packages of a cycle can be
+ * looked up in the {@link CycleDetector}.
+ */
+@FunctionalInterface
+public interface CycleReporter extends Closeable {
+
+    @Override
+    default void close() throws IOException {
+        // nothing to close
+    }
+
+    void report(Cycle cycle, CycleDetector cycleDetector) throws IOException;
+}
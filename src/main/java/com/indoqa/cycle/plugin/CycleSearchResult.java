@@ -0,0 +1,99 @@
+/*
+ * Licensed to the Indoqa Software Design und Beratung GmbH (Indoqa) under
+ * one or more contributor license agreements. See the NOTICE file distributed
+ * with this work for additional information regarding copyright ownership.
+ * Indoqa licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.indoqa.cycle.plugin;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The number of cycles reported within a {@link CycleBudget} and the strongly connected components whose cycles were not
+ * enumerated completely.
+ */
+public class CycleSearchResult {
+
+    private final List<IncompleteComponent> incompleteComponents = new ArrayList<>();
+
+    private int cycleCount;
+
+    public void addCycle() {
+        this.cycleCount++;
+    }
+
+    public void addIncompleteComponent(IncompleteComponent incompleteComponent) {
+        this.incompleteComponents.add(incompleteComponent);
+    }
+
+    public int getCycleCount() {
+        return this.cycleCount;
+    }
+
+    public List<IncompleteComponent> getIncompleteComponents() {
+        return this.incompleteComponents;
+    }
+
+    public boolean isComplete() {
+        return this.incompleteComponents.isEmpty();
+    }
+
+    public enum Reason {
+        CYCLE_LIMIT("the cycle limit was reached"), CYCLE_LENGTH("longer cycles were skipped"), TIMEOUT("the search timed out"),
+        FAIL_FAST("the search stopped at the first cycle");
+
+        private final String description;
+
+        Reason(String description) {
+            this.description = description;
+        }
+
+        public String getDescription() {
+            return this.description;
+        }
+    }
+
+    public static class IncompleteComponent {
+
+        private final List<String> packages;
+        private final int foundCycles;
+        private final Reason reason;
+
+        public IncompleteComponent(List<String> packages, int foundCycles, Reason reason) {
+            super();
+            this.packages = packages;
+            this.foundCycles = foundCycles;
+            this.reason = reason;
+        }
+
+        public int getFoundCycles() {
+            return this.foundCycles;
+        }
+
+        public List<String> getPackages() {
+            return this.packages;
+        }
+
+        public Reason getReason() {
+            return this.reason;
+        }
+
+        @Override
+        public String toString() {
+            int cycleCount = Math.max(1, this.foundCycles);
+            return "at least " + cycleCount + (cycleCount == 1 ? " cycle" : " cycles") + " in SCC of " + this.packages.size()
+                + " packages starting at " + this.packages.get(0) + " (" + this.reason.getDescription() + ")";
+        }
+    }
+}
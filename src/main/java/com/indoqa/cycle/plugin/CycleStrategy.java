@@ -0,0 +1,54 @@
+/*
+ * Licensed to the Indoqa Software Design und Beratung GmbH (Indoqa) under
+ * one or more contributor license agreements. See the NOTICE file distributed
+ * with this work for additional information regarding copyright ownership.
+ * Indoqa licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.indoqa.cycle.plugin;
+
+import java.util.Locale;
+
+public enum CycleStrategy {
+
+    /**
+     * The shortest cycle through each package of a strongly connected component.
+     */
+    SHORTEST,
+
+    /**
+     * All elementary cycles of a strongly connected component.
+     */
+    ALL;
+
+    public static CycleStrategy get(String name) {
+        for (CycleStrategy eachCycleStrategy : values()) {
+            if (eachCycleStrategy.getName().equals(name.trim().toLowerCase(Locale.ROOT))) {
+                return eachCycleStrategy;
+            }
+        }
+
+        return null;
+    }
+
+    public CycleFinder createFinder(PackageGraph graph) {
+        if (this == ALL) {
+            return new ElementaryCycles(graph);
+        }
+
+        return new ShortestCycles(graph);
+    }
+
+    public String getName() {
+        return this.name().toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,101 @@
+/*
+ * Licensed to the Indoqa Software Design und Beratung GmbH (Indoqa) under
+ * one or more contributor license agreements. See the NOTICE file distributed
+ * with this work for additional information regarding copyright ownership.
+ * Indoqa licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.indoqa.cycle.plugin;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Keeps the first cycles for the console and counts the others, so the build failure message stays short even for
+ * thousands of cycles.
+ */
+public class CycleSummary implements CycleReporter {
+
+    private final int limit;
+    private final List<String> formattedCycles = new ArrayList<>();
+    private final List<Path> reportFiles = new ArrayList<>();
+    private final Function<Cycle, String> headline;
+
+    private int cycleCount;
+
+    public CycleSummary(int limit, Function<Cycle, String> headline) {
+        super();
+        this.limit = Math.max(0, limit);
+        this.headline = headline;
+    }
+
+    public void addReportFile(Path reportFile) {
+        this.reportFiles.add(reportFile);
+    }
+
+    public int getCycleCount() {
+        return this.cycleCount;
+    }
+
+    public String getMessage() {
+        StringBuilder stringBuilder = new StringBuilder();
+
+        for (String eachFormattedCycle : this.formattedCycles) {
+            stringBuilder.append(eachFormattedCycle);
+        }
+
+        if (this.cycleCount > this.formattedCycles.size()) {
+            stringBuilder.append("\n");
+            int omittedCycles = this.cycleCount - this.formattedCycles.size();
+            stringBuilder.append("... and ");
+            stringBuilder.append(omittedCycles);
+            stringBuilder.append(omittedCycles == 1 ? " more package cycle.\n" : " more package cycles.\n");
+        }
+
+        stringBuilder.append("\n");
+        stringBuilder.append("See ");
+        for (int i = 0; i < this.reportFiles.size(); i++) {
+            if (i > 0) {
+                stringBuilder.append(", ");
+            }
+            stringBuilder.append(this.reportFiles.get(i).toAbsolutePath());
+        }
+        stringBuilder.append(" for involved classes.");
+
+        return stringBuilder.toString();
+    }
+
+    public boolean isEmpty() {
+        return this.cycleCount == 0;
+    }
+
+    @Override
+    public void report(Cycle cycle, CycleDetector cycleDetector) {
+        this.cycleCount++;
+        if (this.formattedCycles.size() >= this.limit) {
+            return;
+        }
+
+        StringBuilder stringBuilder = new StringBuilder();
+        stringBuilder.append("\n");
+        stringBuilder.append(this.headline.apply(cycle));
+        stringBuilder.append("\n");
+        for (String eachInvolvedPackage : cycle.getInvolvedPackages()) {
+            stringBuilder.append("    ");
+            stringBuilder.append(eachInvolvedPackage);
+            stringBuilder.append("\n");
+        }
+        this.formattedCycles.add(stringBuilder.toString());
+    }
+}
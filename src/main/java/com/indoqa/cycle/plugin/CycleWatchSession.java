@@ -0,0 +1,280 @@
+/*
+ * Licensed to the Indoqa Software Design und Beratung GmbH (Indoqa) under
+ * one or more contributor license agreements. See the NOTICE file distributed
+ * with this work for additional information regarding copyright ownership.
+ * Indoqa licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.indoqa.cycle.plugin;
+
+import java.util.*;
+
+/**
+ * Keeps the class dependencies of a module between analyses and updates the package cycles incrementally. Changed and
+ * removed classes only update the weights of the package dependencies they contribute to. The package graph is rebuilt
+ * from these weights, which is cheap, but the cycles are only searched again in strongly connected components that are
+ * new or contain a package dependency that appeared or disappeared. The search is done by {@link CycleDetector}, the
+ * cycles of all other components are kept.
+ */
+public class CycleWatchSession {
+
+    private final Granularity granularity;
+    private final PackageMatcher excludedPackageMatcher;
+    private final CycleBudget budget;
+    private final CycleBaseline baseline;
+    private final int dependencyKinds;
+
+    private final Map<String, ClassDependencies> classes = new HashMap<>();
+    private final Map<String, Set<String>> dependentsByClass = new HashMap<>();
+    private final Map<String, Map<String, Integer>> weights = new HashMap<>();
+    private Map<String, List<Cycle>> cyclesByComponent = new HashMap<>();
+    private Map<String, Cycle> cycles = new LinkedHashMap<>();
+
+    public CycleWatchSession(Granularity granularity, String[] excludedPackages, CycleBudget budget, CycleBaseline baseline) {
+        this(granularity, excludedPackages, budget, baseline, DependencyKind.ALL);
+    }
+
+    /**
+     * @param dependencyKinds The bitmask of the {@link DependencyKind}s of the class dependencies that are counted.
+     */
+    public CycleWatchSession(Granularity granularity, String[] excludedPackages, CycleBudget budget, CycleBaseline baseline, int dependencyKinds) {
+        super();
+        this.granularity = granularity;
+        this.excludedPackageMatcher = PackageMatcher.compile(excludedPackages);
+        this.budget = budget;
+        this.baseline = baseline;
+        this.dependencyKinds = dependencyKinds;
+    }
+
+    public Set<String> getClassNames() {
+        return Collections.unmodifiableSet(this.classes.keySet());
+    }
+
+    public Collection<Cycle> getCycles() {
+        return Collections.unmodifiableCollection(this.cycles.values());
+    }
+
+    /**
+     * Replaces the changed classes, removes the removed classes and searches the cycles of the affected components again.
+     */
+    public Update update(Collection<ClassDependencies> changedClasses, Collection<String> removedClasses) {
+        Map<String, ClassDependencies> updatedClasses = new HashMap<>();
+        for (String eachRemovedClass : removedClasses) {
+            updatedClasses.put(eachRemovedClass, null);
+        }
+        for (ClassDependencies eachChangedClass : changedClasses) {
+            updatedClasses.put(eachChangedClass.getClassName(), this.getNode(eachChangedClass.getClassName()) == null ? null : eachChangedClass);
+        }
+
+        Set<Connection<String>> toggledDependencies = new HashSet<>();
+        for (String eachClass : updatedClasses.keySet()) {
+            this.connect(eachClass, updatedClasses, -1, toggledDependencies);
+        }
+        for (Map.Entry<String, ClassDependencies> eachUpdatedClass : updatedClasses.entrySet()) {
+            this.replace(eachUpdatedClass.getKey(), eachUpdatedClass.getValue());
+        }
+        for (String eachClass : updatedClasses.keySet()) {
+            this.connect(eachClass, updatedClasses, 1, toggledDependencies);
+        }
+
+        return this.updateCycles(toggledDependencies);
+    }
+
+    private void addWeight(String sourceNode, String targetNode, int delta, Set<Connection<String>> toggledDependencies) {
+        if (sourceNode.equals(targetNode)) {
+            return;
+        }
+
+        Map<String, Integer> targetWeights = this.weights.computeIfAbsent(sourceNode, key -> new HashMap<>());
+        int weight = targetWeights.getOrDefault(targetNode, 0) + delta;
+        if (weight == 0) {
+            targetWeights.remove(targetNode);
+            if (targetWeights.isEmpty()) {
+                this.weights.remove(sourceNode);
+            }
+        } else {
+            targetWeights.put(targetNode, weight);
+        }
+
+        if (weight == 0 || weight == delta) {
+            toggledDependencies.add(new Connection<>(sourceNode, targetNode));
+        }
+    }
+
+    /**
+     * Adds or removes the package dependencies of the class to and from the other known classes. Dependencies between two
+     * updated classes are only counted once, as outgoing dependency.
+     */
+    private void connect(String className, Map<String, ClassDependencies> updatedClasses, int delta, Set<Connection<String>> toggledDependencies) {
+        ClassDependencies classDependencies = this.classes.get(className);
+        if (classDependencies == null) {
+            return;
+        }
+
+        String node = this.getNode(className);
+        List<String> dependencies = classDependencies.getDependencies();
+        for (int i = 0; i < dependencies.size(); i++) {
+            if ((classDependencies.getKinds(i) & this.dependencyKinds) != 0 && this.classes.containsKey(dependencies.get(i))) {
+                this.addWeight(node, this.getNode(dependencies.get(i)), delta, toggledDependencies);
+            }
+        }
+
+        for (String eachDependent : this.dependentsByClass.getOrDefault(className, Collections.emptySet())) {
+            if (updatedClasses.containsKey(eachDependent)) {
+                continue;
+            }
+
+            ClassDependencies dependentClassDependencies = this.classes.get(eachDependent);
+            if (dependentClassDependencies != null && (dependentClassDependencies.getKinds(className) & this.dependencyKinds) != 0) {
+                this.addWeight(this.getNode(eachDependent), node, delta, toggledDependencies);
+            }
+        }
+    }
+
+    private String getNode(String className) {
+        return CycleDetector.getNode(className, this.excludedPackageMatcher, this.granularity);
+    }
+
+    private void replace(String className, ClassDependencies classDependencies) {
+        ClassDependencies previousClassDependencies = classDependencies == null ? this.classes.remove(className)
+            : this.classes.put(className, classDependencies);
+
+        if (previousClassDependencies != null) {
+            for (String eachDependency : previousClassDependencies.getDependencies()) {
+                Set<String> dependents = this.dependentsByClass.get(eachDependency);
+                dependents.remove(className);
+                if (dependents.isEmpty()) {
+                    this.dependentsByClass.remove(eachDependency);
+                }
+            }
+        }
+
+        if (classDependencies != null) {
+            for (String eachDependency : classDependencies.getDependencies()) {
+                this.dependentsByClass.computeIfAbsent(eachDependency, key -> new HashSet<>()).add(className);
+            }
+        }
+    }
+
+    private Update updateCycles(Set<Connection<String>> toggledDependencies) {
+        PackageGraph.Builder builder = new PackageGraph.Builder();
+        for (Map.Entry<String, Map<String, Integer>> eachSource : this.weights.entrySet()) {
+            for (String eachTarget : eachSource.getValue().keySet()) {
+                builder.addEdge(eachSource.getKey(), eachTarget);
+            }
+        }
+        PackageGraph graph = builder.build();
+        CycleDetector cycleDetector = new CycleDetector(graph, this.granularity);
+        cycleDetector.setBaseline(this.baseline);
+
+        List<int[]> components = cycleDetector.getCyclicComponents();
+        int[] componentIndexes = new int[graph.getNodeCount()];
+        Arrays.fill(componentIndexes, -1);
+        for (int i = 0; i < components.size(); i++) {
+            for (int eachNode : components.get(i)) {
+                componentIndexes[eachNode] = i;
+            }
+        }
+
+        boolean[] affected = new boolean[components.size()];
+        for (Connection<String> eachToggledDependency : toggledDependencies) {
+            int source = graph.getId(eachToggledDependency.getStart());
+            int target = graph.getId(eachToggledDependency.getEnd());
+            if (source != -1 && target != -1 && componentIndexes[source] != -1 && componentIndexes[source] == componentIndexes[target]) {
+                affected[componentIndexes[source]] = true;
+            }
+        }
+
+        String[] componentKeys = new String[components.size()];
+        List<int[]> searchedComponents = new ArrayList<>();
+        for (int i = 0; i < components.size(); i++) {
+            StringJoiner componentKey = new StringJoiner(",");
+            for (int eachNode : components.get(i)) {
+                componentKey.add(graph.getName(eachNode));
+            }
+            componentKeys[i] = componentKey.toString();
+
+            // new components are searched as well
+            affected[i] |= !this.cyclesByComponent.containsKey(componentKeys[i]);
+            if (affected[i]) {
+                searchedComponents.add(components.get(i));
+            }
+        }
+        Iterator<List<Cycle>> searchedCycles = cycleDetector.findCycles(searchedComponents, this.budget).iterator();
+
+        Map<String, List<Cycle>> updatedCyclesByComponent = new HashMap<>();
+        Map<String, Cycle> updatedCycles = new LinkedHashMap<>();
+        for (int i = 0; i < components.size(); i++) {
+            List<Cycle> componentCycles = affected[i] ? searchedCycles.next() : this.cyclesByComponent.get(componentKeys[i]);
+
+            updatedCyclesByComponent.put(componentKeys[i], componentCycles);
+            for (Cycle eachCycle : componentCycles) {
+                updatedCycles.put(CycleBaseline.getKey(eachCycle), eachCycle);
+            }
+        }
+
+        List<Cycle> newCycles = new ArrayList<>();
+        for (Map.Entry<String, Cycle> eachCycle : updatedCycles.entrySet()) {
+            if (!this.cycles.containsKey(eachCycle.getKey())) {
+                newCycles.add(eachCycle.getValue());
+            }
+        }
+        List<Cycle> resolvedCycles = new ArrayList<>();
+        for (Map.Entry<String, Cycle> eachCycle : this.cycles.entrySet()) {
+            if (!updatedCycles.containsKey(eachCycle.getKey())) {
+                resolvedCycles.add(eachCycle.getValue());
+            }
+        }
+
+        this.cyclesByComponent = updatedCyclesByComponent;
+        this.cycles = updatedCycles;
+        return new Update(newCycles, resolvedCycles, toggledDependencies.size(), searchedComponents.size(), components.size());
+    }
+
+    public static class Update {
+
+        private final List<Cycle> newCycles;
+        private final List<Cycle> resolvedCycles;
+        private final int changedDependencies;
+        private final int recomputedComponents;
+        private final int componentCount;
+
+        public Update(List<Cycle> newCycles, List<Cycle> resolvedCycles, int changedDependencies, int recomputedComponents, int componentCount) {
+            super();
+            this.newCycles = newCycles;
+            this.resolvedCycles = resolvedCycles;
+            this.changedDependencies = changedDependencies;
+            this.recomputedComponents = recomputedComponents;
+            this.componentCount = componentCount;
+        }
+
+        public int getChangedDependencies() {
+            return this.changedDependencies;
+        }
+
+        public int getComponentCount() {
+            return this.componentCount;
+        }
+
+        public List<Cycle> getNewCycles() {
+            return this.newCycles;
+        }
+
+        public int getRecomputedComponents() {
+            return this.recomputedComponents;
+        }
+
+        public List<Cycle> getResolvedCycles() {
+            return this.resolvedCycles;
+        }
+    }
+}
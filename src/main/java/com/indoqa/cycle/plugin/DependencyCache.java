@@ -0,0 +1,343 @@
+/*
+ * Licensed to the Indoqa Software Design und Beratung GmbH (Indoqa) under
+ * one or more contributor license agreements. See the NOTICE file distributed
+ * with this work for additional information regarding copyright ownership.
+ * Indoqa licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.indoqa.cycle.plugin;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Persistent store of the {@link ClassDependencies} of each class file, keyed by size, modification time and content
+ * hash. Only class files that changed since the last run have to be imported again.
+ */
+public class DependencyCache {
+
+    private static final int MAGIC = 0xC7C1E5CA;
+    private static final int VERSION = 4;
+    private static final String HASH_ALGORITHM = "SHA-1";
+
+    private final ClassDependencyImporter importer;
+    private final ForkJoinPool pool;
+
+    private Map<String, Entry> entries = new HashMap<>();
+    private Map<String, String> verifiedDigests = new TreeMap<>();
+    private int importedCount;
+    private int cachedCount;
+    private boolean modified = true;
+
+    public DependencyCache(ClassDependencyImporter importer, ForkJoinPool pool) {
+        super();
+        this.importer = importer;
+        this.pool = pool;
+    }
+
+    public static DependencyCache load(File cacheFile, ClassDependencyImporter importer, ForkJoinPool pool) {
+        DependencyCache result = new DependencyCache(importer, pool);
+        if (!cacheFile.isFile()) {
+            return result;
+        }
+
+        try (DataInputStream input = new DataInputStream(new BufferedInputStream(Files.newInputStream(cacheFile.toPath())))) {
+            if (input.readInt() != MAGIC || input.readInt() != VERSION || !input.readUTF().equals(importer.getName())) {
+                return result;
+            }
+
+            int digestCount = input.readInt();
+            for (int i = 0; i < digestCount; i++) {
+                String key = input.readUTF();
+                result.verifiedDigests.put(key, input.readUTF());
+            }
+
+            int entryCount = input.readInt();
+            for (int i = 0; i < entryCount; i++) {
+                String relativePath = input.readUTF();
+                result.entries.put(relativePath, Entry.read(input));
+            }
+        } catch (IOException e) {
+            // a damaged cache is simply rebuilt
+            return new DependencyCache(importer, pool);
+        }
+
+        result.modified = false;
+        return result;
+    }
+
+    private static byte[] hash(File classFile) throws IOException {
+        try {
+            return MessageDigest.getInstance(HASH_ALGORITHM).digest(Files.readAllBytes(classFile.toPath()));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("Hash algorithm " + HASH_ALGORITHM + " is not available.", e);
+        }
+    }
+
+    private static int getRootIndex(String key) {
+        int separatorIndex = key.indexOf(':');
+        return separatorIndex == -1 ? 0 : Integer.parseInt(key.substring(0, separatorIndex));
+    }
+
+    private static String relativize(File directory, File classFile) {
+        return directory.toPath().relativize(classFile.toPath()).toString().replace(File.separatorChar, '/');
+    }
+
+    /**
+     * Creates an unmodified cache with the same entries for another importer instance and pool. The entries are shared,
+     * because {@link #update(File)} replaces them instead of changing them.
+     */
+    public DependencyCache copy(ClassDependencyImporter otherImporter, ForkJoinPool otherPool) {
+        DependencyCache result = new DependencyCache(otherImporter, otherPool);
+
+        result.entries = this.entries;
+        result.verifiedDigests = new TreeMap<>(this.verifiedDigests);
+        result.modified = false;
+
+        return result;
+    }
+
+    /**
+     * @return The class dependencies of the entries of the first class root, keyed by the relative path of their class
+     *         file.
+     */
+    public Map<String, ClassDependencies> getClassDependenciesByPath() {
+        Map<String, ClassDependencies> result = new HashMap<>();
+
+        for (Map.Entry<String, Entry> eachEntry : this.entries.entrySet()) {
+            if (eachEntry.getValue().classDependencies != null && eachEntry.getKey().indexOf(':') == -1) {
+                result.put(eachEntry.getKey(), eachEntry.getValue().classDependencies);
+            }
+        }
+
+        return result;
+    }
+
+    public int getCachedCount() {
+        return this.cachedCount;
+    }
+
+    public int getImportedCount() {
+        return this.importedCount;
+    }
+
+    /**
+     * @param key The analysis the digest belongs to, e.g. the granularity.
+     */
+    public String getVerifiedDigest(String key) {
+        return this.verifiedDigests.getOrDefault(key, "");
+    }
+
+    public int getEntryCount() {
+        return this.entries.size();
+    }
+
+    public String getImporterName() {
+        return this.importer.getName();
+    }
+
+    public boolean isModified() {
+        return this.modified;
+    }
+
+    public void save(File cacheFile) throws IOException {
+        cacheFile.getParentFile().mkdirs();
+
+        try (DataOutputStream output = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(cacheFile.toPath())))) {
+            output.writeInt(MAGIC);
+            output.writeInt(VERSION);
+            output.writeUTF(this.importer.getName());
+            output.writeInt(this.verifiedDigests.size());
+            for (Map.Entry<String, String> eachVerifiedDigest : this.verifiedDigests.entrySet()) {
+                output.writeUTF(eachVerifiedDigest.getKey());
+                output.writeUTF(eachVerifiedDigest.getValue());
+            }
+            output.writeInt(this.entries.size());
+            for (Map.Entry<String, Entry> eachEntry : this.entries.entrySet()) {
+                output.writeUTF(eachEntry.getKey());
+                eachEntry.getValue().write(output);
+            }
+        }
+
+        this.modified = false;
+    }
+
+    public void setVerifiedDigest(String key, String verifiedDigest) {
+        String previousDigest = verifiedDigest == null ? this.verifiedDigests.remove(key) : this.verifiedDigests.put(key, verifiedDigest);
+        this.modified |= !Objects.equals(previousDigest, verifiedDigest);
+    }
+
+    public List<ClassDependencies> update(File classesDirectory) throws IOException {
+        return this.update(List.of(classesDirectory)).get(0);
+    }
+
+    /**
+     * Updates the entries of several class roots and imports all changed class files in one pass. The entries of the first
+     * root are keyed by their relative path, the entries of the other roots by the index of the root and their relative
+     * path. The entries of further roots are kept, e.g. the test classes cached by another goal that analyzes more roots.
+     *
+     * @return The class dependencies of each root.
+     */
+    public List<List<ClassDependencies>> update(List<File> classesDirectories) throws IOException {
+        List<Map<String, Entry>> updatedEntriesByRoot = new ArrayList<>();
+        Map<File, Entry> changedFiles = new ConcurrentHashMap<>();
+
+        try {
+            for (int i = 0; i < classesDirectories.size(); i++) {
+                File directory = classesDirectories.get(i).toPath().toAbsolutePath().normalize().toFile();
+                String prefix = i == 0 ? "" : i + ":";
+                Map<String, Entry> updatedEntries = new ConcurrentHashMap<>();
+                updatedEntriesByRoot.add(updatedEntries);
+
+                List<File> classFiles = ClassFiles.find(directory, this.pool);
+                this.pool.submit(() -> classFiles.parallelStream().forEach(classFile -> {
+                    try {
+                        this.checkClassFile(directory, prefix, classFile, updatedEntries, changedFiles);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                })).join();
+            }
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+
+        Map<File, ClassDependencies> importedClasses = this.importer.importClassFiles(changedFiles.keySet());
+        for (Map.Entry<File, Entry> eachChangedFile : changedFiles.entrySet()) {
+            eachChangedFile.getValue().classDependencies = importedClasses.get(eachChangedFile.getKey());
+        }
+
+        Map<String, Entry> allUpdatedEntries = new HashMap<>();
+        for (Map.Entry<String, Entry> eachEntry : this.entries.entrySet()) {
+            if (getRootIndex(eachEntry.getKey()) >= classesDirectories.size()) {
+                allUpdatedEntries.put(eachEntry.getKey(), eachEntry.getValue());
+            }
+        }
+
+        int updatedCount = 0;
+        List<List<ClassDependencies>> result = new ArrayList<>(updatedEntriesByRoot.size());
+        for (Map<String, Entry> eachUpdatedEntries : updatedEntriesByRoot) {
+            allUpdatedEntries.putAll(eachUpdatedEntries);
+            updatedCount += eachUpdatedEntries.size();
+
+            List<ClassDependencies> classDependencies = new ArrayList<>(eachUpdatedEntries.size());
+            for (Entry eachEntry : eachUpdatedEntries.values()) {
+                if (eachEntry.classDependencies != null) {
+                    classDependencies.add(eachEntry.classDependencies);
+                }
+            }
+            result.add(classDependencies);
+        }
+
+        this.modified |= !changedFiles.isEmpty() || allUpdatedEntries.size() != this.entries.size() || !this.isUnchanged(allUpdatedEntries);
+        this.entries = allUpdatedEntries;
+        this.importedCount = changedFiles.size();
+        this.cachedCount = updatedCount - this.importedCount;
+
+        return result;
+    }
+
+    private boolean isUnchanged(Map<String, Entry> updatedEntries) {
+        for (Map.Entry<String, Entry> eachEntry : updatedEntries.entrySet()) {
+            if (this.entries.get(eachEntry.getKey()) != eachEntry.getValue()) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    private void checkClassFile(File directory, String prefix, File classFile, Map<String, Entry> updatedEntries,
+            Map<File, Entry> changedFiles) throws IOException {
+        String relativePath = prefix + relativize(directory, classFile);
+        long size = classFile.length();
+        long lastModified = classFile.lastModified();
+
+        Entry entry = this.entries.get(relativePath);
+        if (entry != null && entry.size == size && entry.lastModified == lastModified) {
+            updatedEntries.put(relativePath, entry);
+            return;
+        }
+
+        byte[] hash = hash(classFile);
+        if (entry != null && Arrays.equals(entry.hash, hash)) {
+            updatedEntries.put(relativePath, new Entry(size, lastModified, hash, entry.classDependencies));
+            return;
+        }
+
+        Entry changedEntry = new Entry(size, lastModified, hash, null);
+        updatedEntries.put(relativePath, changedEntry);
+        changedFiles.put(classFile, changedEntry);
+    }
+
+    private static final class Entry {
+
+        private final long size;
+        private final long lastModified;
+        private final byte[] hash;
+        private ClassDependencies classDependencies;
+
+        public Entry(long size, long lastModified, byte[] hash, ClassDependencies classDependencies) {
+            super();
+            this.size = size;
+            this.lastModified = lastModified;
+            this.hash = hash;
+            this.classDependencies = classDependencies;
+        }
+
+        public static Entry read(DataInputStream input) throws IOException {
+            long size = input.readLong();
+            long lastModified = input.readLong();
+            byte[] hash = new byte[input.readUnsignedByte()];
+            input.readFully(hash);
+
+            if (!input.readBoolean()) {
+                return new Entry(size, lastModified, hash, null);
+            }
+
+            String className = input.readUTF();
+            int dependencyCount = input.readInt();
+            Map<String, Integer> dependencyKinds = new HashMap<>(dependencyCount * 2);
+            for (int i = 0; i < dependencyCount; i++) {
+                String dependency = input.readUTF();
+                dependencyKinds.put(dependency, input.readUnsignedByte());
+            }
+
+            return new Entry(size, lastModified, hash, new ClassDependencies(className, dependencyKinds));
+        }
+
+        public void write(DataOutputStream output) throws IOException {
+            output.writeLong(this.size);
+            output.writeLong(this.lastModified);
+            output.writeByte(this.hash.length);
+            output.write(this.hash);
+
+            output.writeBoolean(this.classDependencies != null);
+            if (this.classDependencies == null) {
+                return;
+            }
+
+            output.writeUTF(this.classDependencies.getClassName());
+            List<String> dependencies = this.classDependencies.getDependencies();
+            output.writeInt(dependencies.size());
+            for (int i = 0; i < dependencies.size(); i++) {
+                output.writeUTF(dependencies.get(i));
+                output.writeByte(this.classDependencies.getKinds(i));
+            }
+        }
+    }
+}
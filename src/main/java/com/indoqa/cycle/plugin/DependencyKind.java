@@ -0,0 +1,79 @@
+/*
+ * Licensed to the Indoqa Software Design und Beratung GmbH (Indoqa) under
+ * one or more contributor license agreements. See the NOTICE file distributed
+ * with this work for additional information regarding copyright ownership.
+ * Indoqa licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.indoqa.cycle.plugin;
+
+import java.util.Locale;
+
+/**
+ * Where a class references another class. The kinds of a dependency are stored as a bitmask, a dependency can have
+ * several kinds.
+ */
+public enum DependencyKind {
+
+    INHERITANCE("inheritance"), FIELD("field"), SIGNATURE("signature"), ANNOTATION("annotation"), CODE("code");
+
+    public static final int ALL = (1 << values().length) - 1;
+
+    private final String name;
+
+    DependencyKind(String name) {
+        this.name = name;
+    }
+
+    public static DependencyKind get(String name) {
+        String normalizedName = name.trim().toLowerCase(Locale.ROOT);
+
+        for (DependencyKind eachDependencyKind : values()) {
+            if (eachDependencyKind.name.equals(normalizedName)) {
+                return eachDependencyKind;
+            }
+        }
+
+        return null;
+    }
+
+    /**
+     * @return The bitmask of the named kinds, <code>all</code> stands for all kinds.
+     * @throws IllegalArgumentException If a kind is unknown.
+     */
+    public static int parse(String... names) {
+        int result = 0;
+
+        for (String eachName : names) {
+            if (eachName.trim().equalsIgnoreCase("all")) {
+                result |= ALL;
+                continue;
+            }
+
+            DependencyKind dependencyKind = get(eachName);
+            if (dependencyKind == null) {
+                throw new IllegalArgumentException("Unknown dependency kind '" + eachName + "'. Use 'all' or some of inheritance, field, signature, annotation, code.");
+            }
+            result |= dependencyKind.getMask();
+        }
+
+        return result;
+    }
+
+    public int getMask() {
+        return 1 << this.ordinal();
+    }
+
+    public String getName() {
+        return this.name;
+    }
+}
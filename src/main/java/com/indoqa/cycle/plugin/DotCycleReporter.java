@@ -0,0 +1,64 @@
+/*
+ * Licensed to the Indoqa Software Design und Beratung GmbH (Indoqa) under
+ * one or more contributor license agreements. See the NOTICE file distributed
+ * with this work for additional information regarding copyright ownership.
+ * Indoqa licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.indoqa.cycle.plugin;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Writes the package dependencies of all cycles as a GraphViz digraph. Each dependency is written once and labeled with
+ * the number of class dependencies.
+ */
+public class DotCycleReporter extends AbstractFileCycleReporter {
+
+    private final Set<Connection<String>> writtenDependencies = new HashSet<>();
+
+    public DotCycleReporter(Path targetPath) throws IOException {
+        super(targetPath);
+
+        this.getWriter().write("digraph cycles {\n");
+        this.getWriter().write("  node [shape=box];\n");
+    }
+
+    @Override
+    public void close() throws IOException {
+        this.getWriter().write("}\n");
+
+        super.close();
+    }
+
+    @Override
+    public void report(Cycle cycle, CycleDetector cycleDetector) throws IOException {
+        BufferedWriter writer = this.getWriter();
+        List<String> involvedPackages = cycle.getInvolvedPackages();
+
+        for (int i = 0; i < involvedPackages.size() - 1; i++) {
+            String startPackage = involvedPackages.get(i);
+            String endPackage = involvedPackages.get(i + 1);
+            if (!this.writtenDependencies.add(new Connection<>(startPackage, endPackage))) {
+                continue;
+            }
+
+            int classDependencies = cycleDetector.getClassConnections(startPackage, endPackage).size();
+            writer.write("  " + Json.quote(startPackage) + " -> " + Json.quote(endPackage) + " [label=\"" + classDependencies + "\"];\n");
+        }
+    }
+}
@@ -0,0 +1,232 @@
+/*
+ * Licensed to the Indoqa Software Design und Beratung GmbH (Indoqa) under
+ * one or more contributor license agreements. See the NOTICE file distributed
+ * with this work for additional information regarding copyright ownership.
+ * Indoqa licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.indoqa.cycle.plugin;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Johnson's algorithm for enumerating the elementary cycles of a strongly connected component. The search is iterative
+ * and only works on preallocated arrays. The enumeration stops after the configured number of cycles or at the deadline,
+ * so dense components cannot explode. Paths are not extended beyond the maximum cycle length. Accepted cycles do not count
+ * toward the number of cycles, the search continues until enough other cycles are found, but it enumerates at most
+ * {@value #ENUMERATED_CYCLES_PER_CYCLE} times the number of cycles including the accepted ones.
+ */
+public final class ElementaryCycles implements CycleFinder {
+
+    private static final int DEADLINE_CHECK_INTERVAL = 0x3FF;
+    private static final int ENUMERATED_CYCLES_PER_CYCLE = 100;
+
+    private final PackageGraph graph;
+    private final int[] localIndexes;
+
+    private int[] component;
+    private int maxCycles;
+    private long maxEnumeratedCycles;
+    private int maxLength;
+    private long deadline;
+    private AcceptedCycles acceptedCycles;
+    private boolean timedOut;
+    private List<int[]> cycles;
+    private long enumeratedCycles;
+
+    private boolean[] blocked;
+    private int[][] blockedBy;
+    private int[] blockedByCounts;
+    private int[] stack;
+    private int[] nextEdges;
+    private boolean[] found;
+    private int[] pending = new int[16];
+    private long exploredPaths;
+
+    public ElementaryCycles(PackageGraph graph) {
+        super();
+        this.graph = graph;
+        this.localIndexes = new int[graph.getNodeCount()];
+        Arrays.fill(this.localIndexes, -1);
+    }
+
+    public List<int[]> find(int[] component, int maxCycles) {
+        return this.find(component, maxCycles, Integer.MAX_VALUE, 0);
+    }
+
+    @Override
+    public List<int[]> find(int[] component, int maxCycles, int maxLength, long deadline, AcceptedCycles acceptedCycles) {
+        this.component = component;
+        this.maxCycles = maxCycles;
+        this.maxEnumeratedCycles = (long) maxCycles * ENUMERATED_CYCLES_PER_CYCLE;
+        this.maxLength = maxLength;
+        this.deadline = deadline;
+        this.acceptedCycles = acceptedCycles;
+        this.timedOut = false;
+        this.cycles = new ArrayList<>();
+        this.enumeratedCycles = 0;
+
+        int size = component.length;
+        this.blocked = new boolean[size];
+        this.blockedBy = new int[size][];
+        this.blockedByCounts = new int[size];
+        this.stack = new int[size];
+        this.nextEdges = new int[size];
+        this.found = new boolean[size];
+
+        for (int i = 0; i < size; i++) {
+            this.localIndexes[component[i]] = i;
+            this.blockedBy[i] = new int[4];
+        }
+
+        try {
+            for (int start = 0; start < size && !this.isExhausted(); start++) {
+                Arrays.fill(this.blocked, start, size, false);
+                Arrays.fill(this.blockedByCounts, start, size, 0);
+                this.circuit(start);
+            }
+
+            return this.cycles;
+        } finally {
+            for (int eachNode : component) {
+                this.localIndexes[eachNode] = -1;
+            }
+        }
+    }
+
+    @Override
+    public long getExploredPaths() {
+        return this.exploredPaths;
+    }
+
+    @Override
+    public boolean isCycleLimitReached() {
+        return this.cycles.size() >= this.maxCycles || this.enumeratedCycles >= this.maxEnumeratedCycles;
+    }
+
+    @Override
+    public boolean isTimedOut() {
+        return this.timedOut;
+    }
+
+    private void addBlockedBy(int node, int blockingNode) {
+        int count = this.blockedByCounts[node];
+        int[] nodes = this.blockedBy[node];
+
+        for (int i = 0; i < count; i++) {
+            if (nodes[i] == blockingNode) {
+                return;
+            }
+        }
+
+        if (count == nodes.length) {
+            nodes = this.blockedBy[node] = Arrays.copyOf(nodes, count * 2);
+        }
+        nodes[count] = blockingNode;
+        this.blockedByCounts[node] = count + 1;
+    }
+
+    private void addCycle(int depth) {
+        int[] cycle = new int[depth];
+        for (int i = 0; i < depth; i++) {
+            cycle[i] = this.component[this.stack[i]];
+        }
+
+        this.enumeratedCycles++;
+        if (this.acceptedCycles == null || !this.acceptedCycles.isAccepted(cycle)) {
+            this.cycles.add(cycle);
+        }
+    }
+
+    private void circuit(int start) {
+        int depth = 0;
+        this.push(depth++, start);
+
+        while (depth > 0 && !this.isExhausted()) {
+            int top = depth - 1;
+            int node = this.stack[top];
+            int nodeId = this.component[node];
+
+            if (this.nextEdges[top] < this.graph.getEnd(nodeId)) {
+                int target = this.localIndexes[this.graph.getTarget(this.nextEdges[top]++)];
+                if (target < start) {
+                    continue;
+                }
+
+                if (target == start) {
+                    this.addCycle(depth);
+                    this.found[top] = true;
+                } else if (depth == this.maxLength) {
+                    // a longer cycle may exist, so the node must not stay blocked
+                    this.found[top] = true;
+                } else if (!this.blocked[target]) {
+                    this.push(depth++, target);
+                }
+                continue;
+            }
+
+            if (this.found[top]) {
+                this.unblock(node);
+            } else {
+                for (int edge = this.graph.getStart(nodeId); edge < this.graph.getEnd(nodeId); edge++) {
+                    int target = this.localIndexes[this.graph.getTarget(edge)];
+                    if (target >= start) {
+                        this.addBlockedBy(target, node);
+                    }
+                }
+            }
+
+            depth--;
+            if (depth > 0 && this.found[top]) {
+                this.found[top - 1] = true;
+            }
+        }
+    }
+
+    private boolean isExhausted() {
+        return this.isCycleLimitReached() || this.timedOut;
+    }
+
+    private void push(int depth, int node) {
+        this.stack[depth] = node;
+        this.nextEdges[depth] = this.graph.getStart(this.component[node]);
+        this.found[depth] = false;
+        this.blocked[node] = true;
+
+        if ((++this.exploredPaths & DEADLINE_CHECK_INTERVAL) == 0 && this.deadline != 0 && System.nanoTime() - this.deadline > 0) {
+            this.timedOut = true;
+        }
+    }
+
+    private void unblock(int node) {
+        int pendingCount = 0;
+        this.pending[pendingCount++] = node;
+
+        while (pendingCount > 0) {
+            int eachNode = this.pending[--pendingCount];
+            if (!this.blocked[eachNode]) {
+                continue;
+            }
+            this.blocked[eachNode] = false;
+
+            int count = this.blockedByCounts[eachNode];
+            if (pendingCount + count > this.pending.length) {
+                this.pending = Arrays.copyOf(this.pending, Math.max(this.pending.length * 2, pendingCount + count));
+            }
+            System.arraycopy(this.blockedBy[eachNode], 0, this.pending, pendingCount, count);
+            pendingCount += count;
+            this.blockedByCounts[eachNode] = 0;
+        }
+    }
+}
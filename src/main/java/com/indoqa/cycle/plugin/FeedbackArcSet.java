@@ -0,0 +1,302 @@
+/*
+ * Licensed to the Indoqa Software Design und Beratung GmbH (Indoqa) under
+ * one or more contributor license agreements. See the NOTICE file distributed
+ * with this work for additional information regarding copyright ownership.
+ * Indoqa licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.indoqa.cycle.plugin;
+
+import java.util.Arrays;
+
+/**
+ * Weighted variant of the Eades-Lin-Smyth heuristic for the minimum feedback arc set of a strongly connected component.
+ * The packages are arranged in a linear order that keeps heavy dependencies pointing forward, the dependencies pointing
+ * backward are the cut. Afterwards every dependency of the cut that does not close a cycle again is restored, heaviest
+ * first. The ordering takes O(V^2 + E), so components with hundreds of packages take milliseconds.
+ */
+public final class FeedbackArcSet {
+
+    private final PackageGraph graph;
+    private final int[] localIndexes;
+
+    public FeedbackArcSet(PackageGraph graph) {
+        super();
+        this.graph = graph;
+        this.localIndexes = new int[graph.getNodeCount()];
+        Arrays.fill(this.localIndexes, -1);
+    }
+
+    private static int findMaxDelta(long[] deltas, boolean[] removed) {
+        int result = -1;
+
+        for (int node = 0; node < deltas.length; node++) {
+            if (!removed[node] && (result == -1 || deltas[node] > deltas[result])) {
+                result = node;
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Eades-Lin-Smyth: sinks are appended to the end, sources to the start and otherwise the node with the largest
+     * difference of outgoing and incoming weight is moved to the start.
+     */
+    private static int[] order(LocalGraph localGraph) {
+        int size = localGraph.getNodeCount();
+        int[] outDegrees = new int[size];
+        int[] inDegrees = new int[size];
+        long[] deltas = new long[size];
+        for (int node = 0; node < size; node++) {
+            for (int edge = localGraph.offsets[node]; edge < localGraph.offsets[node + 1]; edge++) {
+                int target = localGraph.targets[edge];
+                outDegrees[node]++;
+                inDegrees[target]++;
+                deltas[node] += localGraph.weights[edge];
+                deltas[target] -= localGraph.weights[edge];
+            }
+        }
+
+        int[] positions = new int[size];
+        boolean[] removed = new boolean[size];
+        int[] sinks = new int[size];
+        int[] sources = new int[size];
+        int sinkCount = 0;
+        int sourceCount = 0;
+        int first = 0;
+        int last = size - 1;
+
+        while (first <= last) {
+            int node = -1;
+            int position;
+
+            while (sinkCount > 0 && node == -1) {
+                int candidate = sinks[--sinkCount];
+                if (!removed[candidate]) {
+                    node = candidate;
+                }
+            }
+            if (node != -1) {
+                position = last--;
+            } else {
+                while (sourceCount > 0 && node == -1) {
+                    int candidate = sources[--sourceCount];
+                    if (!removed[candidate]) {
+                        node = candidate;
+                    }
+                }
+                if (node == -1) {
+                    node = findMaxDelta(deltas, removed);
+                }
+                position = first++;
+            }
+
+            positions[node] = position;
+            removed[node] = true;
+
+            for (int edge = localGraph.offsets[node]; edge < localGraph.offsets[node + 1]; edge++) {
+                int target = localGraph.targets[edge];
+                if (!removed[target]) {
+                    deltas[target] += localGraph.weights[edge];
+                    if (--inDegrees[target] == 0) {
+                        sources[sourceCount++] = target;
+                    }
+                }
+            }
+            for (int edge = localGraph.reverseOffsets[node]; edge < localGraph.reverseOffsets[node + 1]; edge++) {
+                int source = localGraph.sources[edge];
+                if (!removed[source]) {
+                    deltas[source] -= localGraph.weights[localGraph.reverseEdges[edge]];
+                    if (--outDegrees[source] == 0) {
+                        sinks[sinkCount++] = source;
+                    }
+                }
+            }
+        }
+
+        return positions;
+    }
+
+    private static boolean reaches(LocalGraph localGraph, boolean[] cut, int start, int end, int[] visited, int visit, int[] stack) {
+        int stackSize = 0;
+        stack[stackSize++] = start;
+        visited[start] = visit;
+
+        while (stackSize > 0) {
+            int node = stack[--stackSize];
+            if (node == end) {
+                return true;
+            }
+
+            for (int edge = localGraph.offsets[node]; edge < localGraph.offsets[node + 1]; edge++) {
+                int target = localGraph.targets[edge];
+                if (!cut[edge] && visited[target] != visit) {
+                    visited[target] = visit;
+                    stack[stackSize++] = target;
+                }
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * @return The edges to remove from the component to make it acyclic, ordered by descending weight.
+     */
+    public int[] find(int[] component) {
+        int size = component.length;
+        for (int i = 0; i < size; i++) {
+            this.localIndexes[component[i]] = i;
+        }
+
+        try {
+            LocalGraph localGraph = this.createLocalGraph(component);
+            int[] positions = order(localGraph);
+
+            boolean[] cut = new boolean[localGraph.getEdgeCount()];
+            int cutCount = 0;
+            for (int node = 0; node < size; node++) {
+                for (int edge = localGraph.offsets[node]; edge < localGraph.offsets[node + 1]; edge++) {
+                    if (positions[localGraph.targets[edge]] <= positions[node]) {
+                        cut[edge] = true;
+                        cutCount++;
+                    }
+                }
+            }
+
+            return this.restore(localGraph, cut, cutCount);
+        } finally {
+            for (int eachNode : component) {
+                this.localIndexes[eachNode] = -1;
+            }
+        }
+    }
+
+    private LocalGraph createLocalGraph(int[] component) {
+        int size = component.length;
+        int[] offsets = new int[size + 1];
+        int[] reverseOffsets = new int[size + 1];
+
+        int edgeCount = 0;
+        for (int node = 0; node < size; node++) {
+            for (int edge = this.graph.getStart(component[node]); edge < this.graph.getEnd(component[node]); edge++) {
+                int target = this.localIndexes[this.graph.getTarget(edge)];
+                if (target != -1) {
+                    edgeCount++;
+                    reverseOffsets[target + 1]++;
+                }
+            }
+            offsets[node + 1] = edgeCount;
+        }
+        for (int node = 0; node < size; node++) {
+            reverseOffsets[node + 1] += reverseOffsets[node];
+        }
+
+        int[] targets = new int[edgeCount];
+        int[] weights = new int[edgeCount];
+        int[] edges = new int[edgeCount];
+        int[] sources = new int[edgeCount];
+        int[] reverseEdges = new int[edgeCount];
+        int[] reverseCounts = new int[size];
+        int localEdge = 0;
+        for (int node = 0; node < size; node++) {
+            for (int edge = this.graph.getStart(component[node]); edge < this.graph.getEnd(component[node]); edge++) {
+                int target = this.localIndexes[this.graph.getTarget(edge)];
+                if (target == -1) {
+                    continue;
+                }
+
+                targets[localEdge] = target;
+                weights[localEdge] = this.graph.getWeight(edge);
+                edges[localEdge] = edge;
+
+                int reverseEdge = reverseOffsets[target] + reverseCounts[target]++;
+                sources[reverseEdge] = node;
+                reverseEdges[reverseEdge] = localEdge;
+                localEdge++;
+            }
+        }
+
+        return new LocalGraph(offsets, targets, weights, edges, reverseOffsets, sources, reverseEdges);
+    }
+
+    /**
+     * Restores the dependencies of the cut that do not close a cycle, heaviest first, and returns the remaining ones.
+     */
+    private int[] restore(LocalGraph localGraph, boolean[] cut, int cutCount) {
+        Integer[] candidates = new Integer[cutCount];
+        int candidateCount = 0;
+        for (int edge = 0; edge < cut.length; edge++) {
+            if (cut[edge]) {
+                candidates[candidateCount++] = edge;
+            }
+        }
+        Arrays.sort(candidates, (edge1, edge2) -> Integer.compare(localGraph.weights[edge2], localGraph.weights[edge1]));
+
+        int size = localGraph.getNodeCount();
+        int[] sources = new int[cut.length];
+        for (int node = 0; node < size; node++) {
+            for (int edge = localGraph.offsets[node]; edge < localGraph.offsets[node + 1]; edge++) {
+                sources[edge] = node;
+            }
+        }
+
+        int[] visited = new int[size];
+        int[] stack = new int[size];
+        int visit = 0;
+        int remainingCount = 0;
+        int[] remaining = new int[cutCount];
+        for (Integer eachCandidate : candidates) {
+            // restoring source -> target closes a cycle if the target still reaches the source
+            if (reaches(localGraph, cut, localGraph.targets[eachCandidate], sources[eachCandidate], visited, ++visit, stack)) {
+                remaining[remainingCount++] = localGraph.edges[eachCandidate];
+            } else {
+                cut[eachCandidate] = false;
+            }
+        }
+
+        return Arrays.copyOf(remaining, remainingCount);
+    }
+
+    /**
+     * The edges within a component in local ids, forward and reverse.
+     */
+    private static final class LocalGraph {
+
+        private final int[] offsets;
+        private final int[] targets;
+        private final int[] weights;
+        private final int[] edges;
+        private final int[] reverseOffsets;
+        private final int[] sources;
+        private final int[] reverseEdges;
+
+        LocalGraph(int[] offsets, int[] targets, int[] weights, int[] edges, int[] reverseOffsets, int[] sources, int[] reverseEdges) {
+            this.offsets = offsets;
+            this.targets = targets;
+            this.weights = weights;
+            this.edges = edges;
+            this.reverseOffsets = reverseOffsets;
+            this.sources = sources;
+            this.reverseEdges = reverseEdges;
+        }
+
+        int getEdgeCount() {
+            return this.targets.length;
+        }
+
+        int getNodeCount() {
+            return this.offsets.length - 1;
+        }
+    }
+}
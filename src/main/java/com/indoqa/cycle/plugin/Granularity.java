@@ -0,0 +1,151 @@
+/*
+ * Licensed to the Indoqa Software Design und Beratung GmbH (Indoqa) under
+ * one or more contributor license agreements. See the NOTICE file distributed
+ * with this work for additional information regarding copyright ownership.
+ * Indoqa licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.indoqa.cycle.plugin;
+
+import java.util.*;
+
+/**
+ * Maps classes to the nodes of the dependency graph: the top level class, the package, the package prefix of a given
+ * depth or a named layer. Classes without a node are not part of the graph.
+ */
+public abstract class Granularity {
+
+    public static final Granularity CLASS = new Granularity("class") {
+
+        @Override
+        public String getNode(String className) {
+            int index = className.indexOf('$', className.lastIndexOf('.') + 1);
+            if (index == -1) {
+                return className;
+            }
+
+            return className.substring(0, index);
+        }
+    };
+
+    public static final Granularity PACKAGE = new Granularity("package") {
+
+        @Override
+        public String getNode(String className) {
+            return ClassDependencies.getPackageName(className);
+        }
+    };
+
+    private static final String PREFIX = "prefix:";
+    private static final String LAYER = "layer";
+
+    private final String name;
+
+    protected Granularity(String name) {
+        super();
+        this.name = name;
+    }
+
+    /**
+     * @param layers The packages of each layer, see {@link PackageMatcher}. A class belongs to the first layer whose
+     *            patterns match its package.
+     */
+    public static Granularity layers(Map<String, String[]> layers) {
+        Map<String, PackageMatcher> matchers = new LinkedHashMap<>();
+        for (Map.Entry<String, String[]> eachLayer : layers.entrySet()) {
+            matchers.put(eachLayer.getKey(), PackageMatcher.compile(eachLayer.getValue()));
+        }
+
+        return new Granularity(LAYER + layers.keySet()) {
+
+            @Override
+            public String getNode(String className) {
+                String packageName = ClassDependencies.getPackageName(className);
+
+                for (Map.Entry<String, PackageMatcher> eachMatcher : matchers.entrySet()) {
+                    if (eachMatcher.getValue().matches(packageName)) {
+                        return eachMatcher.getKey();
+                    }
+                }
+
+                return null;
+            }
+        };
+    }
+
+    /**
+     * @param name <code>class</code>, <code>package</code>, <code>prefix:N</code> or <code>layer</code>
+     */
+    public static Granularity parse(String name, Map<String, String[]> layers) {
+        String normalizedName = name.trim().toLowerCase(Locale.ROOT);
+
+        if (normalizedName.equals(CLASS.getName())) {
+            return CLASS;
+        }
+
+        if (normalizedName.equals(PACKAGE.getName())) {
+            return PACKAGE;
+        }
+
+        if (normalizedName.equals(LAYER)) {
+            if (layers.isEmpty()) {
+                throw new IllegalArgumentException("The granularity 'layer' requires at least one configured layer.");
+            }
+            return layers(layers);
+        }
+
+        if (normalizedName.startsWith(PREFIX)) {
+            try {
+                return prefix(Integer.parseInt(normalizedName.substring(PREFIX.length())));
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid package prefix depth in '" + name + "'.", e);
+            }
+        }
+
+        throw new IllegalArgumentException("Unknown granularity '" + name + "'. Use 'class', 'package', 'prefix:N' or 'layer'.");
+    }
+
+    public static Granularity prefix(int depth) {
+        if (depth < 1) {
+            throw new IllegalArgumentException("The package prefix depth must be at least 1.");
+        }
+
+        return new Granularity(PREFIX + depth) {
+
+            @Override
+            public String getNode(String className) {
+                String packageName = ClassDependencies.getPackageName(className);
+
+                int index = -1;
+                for (int i = 0; i < depth; i++) {
+                    index = packageName.indexOf('.', index + 1);
+                    if (index == -1) {
+                        return packageName;
+                    }
+                }
+
+                return packageName.substring(0, index);
+            }
+        };
+    }
+
+    public String getName() {
+        return this.name;
+    }
+
+    public abstract String getNode(String className);
+
+    @Override
+    public String toString() {
+        return this.name;
+    }
+}
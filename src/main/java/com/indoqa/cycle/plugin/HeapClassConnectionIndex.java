@@ -0,0 +1,81 @@
+/*
+ * Licensed to the Indoqa Software Design und Beratung GmbH (Indoqa) under
+ * one or more contributor license agreements. See the NOTICE file distributed
+ * with this work for additional information regarding copyright ownership.
+ * Indoqa licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.indoqa.cycle.plugin;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Keeps the class connections on the heap, keyed by the ids of the source and target package.
+ */
+public class HeapClassConnectionIndex implements ClassConnectionIndex {
+
+    private final Map<Long, Connections> connections = new HashMap<>();
+
+    private static long getKey(int sourcePackage, int targetPackage) {
+        return (long) sourcePackage << 32 | targetPackage;
+    }
+
+    @Override
+    public void add(int sourcePackage, int targetPackage, String sourceClass, String targetClass, int kinds) {
+        this.connections.computeIfAbsent(getKey(sourcePackage, targetPackage), key -> new Connections())
+            .add(new Connection<>(sourceClass, targetClass), kinds);
+    }
+
+    @Override
+    public List<Connection<String>> get(int sourcePackage, int targetPackage, int dependencyKinds) {
+        Connections result = this.connections.get(getKey(sourcePackage, targetPackage));
+        if (result == null) {
+            return Collections.emptyList();
+        }
+
+        return result.get(dependencyKinds);
+    }
+
+    private static final class Connections {
+
+        private final List<Connection<String>> connections = new ArrayList<>();
+        private int[] kinds = new int[4];
+
+        void add(Connection<String> connection, int connectionKinds) {
+            int index = this.connections.size();
+            if (index == this.kinds.length) {
+                this.kinds = Arrays.copyOf(this.kinds, index * 2);
+            }
+            this.kinds[index] = connectionKinds;
+            this.connections.add(connection);
+        }
+
+        List<Connection<String>> get(int dependencyKinds) {
+            if (dependencyKinds == DependencyKind.ALL) {
+                return this.connections;
+            }
+
+            List<Connection<String>> result = new ArrayList<>();
+            for (int i = 0; i < this.connections.size(); i++) {
+                if ((this.kinds[i] & dependencyKinds) != 0) {
+                    result.add(this.connections.get(i));
+                }
+            }
+            return result;
+        }
+    }
+}
@@ -0,0 +1,108 @@
+/*
+ * Licensed to the Indoqa Software Design und Beratung GmbH (Indoqa) under
+ * one or more contributor license agreements. See the NOTICE file distributed
+ * with this work for additional information regarding copyright ownership.
+ * Indoqa licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.indoqa.cycle.plugin;
+
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.SoftReference;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Keeps dependency caches in memory between builds of a long-running JVM like the Maven daemon, so they don't have to be
+ * read from disk again. The caches are evicted in LRU order when more than the configured number of classes is held and
+ * are softly referenced, so the garbage collector can reclaim them under memory pressure. The classes of reclaimed caches
+ * no longer count toward the limit. Callers get copies, so the cached instances are never changed.
+ */
+public final class InProcessCache {
+
+    private static final Map<String, CacheReference> CACHES = new LinkedHashMap<>(16, 0.75f, true);
+    private static final ReferenceQueue<DependencyCache> CLEARED_CACHES = new ReferenceQueue<>();
+
+    private static int entryCount;
+
+    private InProcessCache() {
+        // hide utility class constructor
+    }
+
+    public static synchronized DependencyCache get(String key, ClassDependencyImporter importer, ForkJoinPool pool) {
+        removeClearedCaches();
+
+        CacheReference reference = CACHES.get(key);
+        if (reference == null) {
+            return null;
+        }
+
+        DependencyCache dependencyCache = reference.get();
+        if (dependencyCache == null || !dependencyCache.getImporterName().equals(importer.getName())) {
+            remove(key);
+            return null;
+        }
+
+        return dependencyCache.copy(importer, pool);
+    }
+
+    public static synchronized void put(String key, DependencyCache dependencyCache, int maxEntryCount) {
+        removeClearedCaches();
+        remove(key);
+        if (dependencyCache.getEntryCount() > maxEntryCount) {
+            return;
+        }
+
+        CACHES.put(key, new CacheReference(key, dependencyCache));
+        entryCount += dependencyCache.getEntryCount();
+
+        Iterator<CacheReference> iterator = CACHES.values().iterator();
+        while (entryCount > maxEntryCount && iterator.hasNext()) {
+            entryCount -= iterator.next().entryCount;
+            iterator.remove();
+        }
+    }
+
+    private static void remove(String key) {
+        CacheReference removedReference = CACHES.remove(key);
+        if (removedReference != null) {
+            entryCount -= removedReference.entryCount;
+        }
+    }
+
+    /**
+     * Forgets the caches reclaimed by the garbage collector. A cleared reference that was already replaced or evicted is
+     * not counted twice.
+     */
+    private static void removeClearedCaches() {
+        CacheReference clearedReference;
+        while ((clearedReference = (CacheReference) CLEARED_CACHES.poll()) != null) {
+            if (CACHES.remove(clearedReference.key, clearedReference)) {
+                entryCount -= clearedReference.entryCount;
+            }
+        }
+    }
+
+    private static final class CacheReference extends SoftReference<DependencyCache> {
+
+        private final String key;
+        private final int entryCount;
+
+        public CacheReference(String key, DependencyCache dependencyCache) {
+            super(dependencyCache, CLEARED_CACHES);
+            this.key = key;
+            this.entryCount = dependencyCache.getEntryCount();
+        }
+    }
+}
@@ -0,0 +1,133 @@
+/*
+ * Licensed to the Indoqa Software Design und Beratung GmbH (Indoqa) under
+ * one or more contributor license agreements. See the NOTICE file distributed
+ * with this work for additional information regarding copyright ownership.
+ * Indoqa licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.indoqa.cycle.plugin;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+
+/**
+ * A digest over everything that determines the result of an analysis: the size and modification time of the class
+ * files, the configuration and the plugin version. If it matches the digest of the last successful analysis, the analysis
+ * can be skipped without reading any class file.
+ */
+public class InputDigest {
+
+    private static final String DIGEST_ALGORITHM = "SHA-256";
+    private static final String CLASS_FILE_EXTENSION = ".class";
+
+    private final MessageDigest messageDigest;
+
+    public InputDigest() {
+        super();
+
+        try {
+            this.messageDigest = MessageDigest.getInstance(DIGEST_ALGORITHM);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("Digest algorithm " + DIGEST_ALGORITHM + " is not available.", e);
+        }
+    }
+
+    public static String read(File digestFile) {
+        try {
+            return Files.readString(digestFile.toPath(), StandardCharsets.UTF_8).trim();
+        } catch (IOException e) {
+            return "";
+        }
+    }
+
+    public static void write(File digestFile, String digest) throws IOException {
+        Files.createDirectories(digestFile.toPath().toAbsolutePath().getParent());
+        Files.writeString(digestFile.toPath(), digest, StandardCharsets.UTF_8);
+    }
+
+    public InputDigest add(String name, Object value) {
+        this.update(name + "=" + value);
+        return this;
+    }
+
+    public InputDigest add(String name, Object[] values) {
+        StringBuilder stringBuilder = new StringBuilder();
+
+        if (values != null) {
+            for (Object eachValue : values) {
+                stringBuilder.append(eachValue).append(',');
+            }
+        }
+
+        return this.add(name, stringBuilder);
+    }
+
+    public InputDigest addClassFiles(File directory) throws IOException {
+        List<String> classFiles = new ArrayList<>();
+        Path root = directory.toPath();
+
+        if (directory.isDirectory()) {
+            Files.walkFileTree(root, new SimpleFileVisitor<>() {
+
+                @Override
+                public FileVisitResult visitFile(Path file, BasicFileAttributes attributes) {
+                    if (attributes.isRegularFile() && file.getFileName().toString().endsWith(CLASS_FILE_EXTENSION)) {
+                        classFiles.add(root.relativize(file) + ":" + attributes.size() + ":" + attributes.lastModifiedTime().toMillis());
+                    }
+                    return FileVisitResult.CONTINUE;
+                }
+            });
+        }
+
+        classFiles.sort(null);
+        this.update("classes=" + directory.getAbsolutePath());
+        for (String eachClassFile : classFiles) {
+            this.update(eachClassFile);
+        }
+
+        return this;
+    }
+
+    public InputDigest addContent(String name, File file) throws IOException {
+        this.update(name + "=" + (file == null ? null : file.getAbsolutePath()));
+
+        if (file != null && file.isFile()) {
+            this.messageDigest.update(Files.readAllBytes(file.toPath()));
+        }
+
+        return this;
+    }
+
+    public InputDigest addFile(String name, File file) {
+        return this.add(name, file.getAbsolutePath() + ":" + file.length() + ":" + file.lastModified());
+    }
+
+    public String getValue() {
+        return HexFormat.of().formatHex(this.messageDigest.digest());
+    }
+
+    private void update(String value) {
+        this.messageDigest.update(value.getBytes(StandardCharsets.UTF_8));
+        this.messageDigest.update((byte) '\n');
+    }
+}
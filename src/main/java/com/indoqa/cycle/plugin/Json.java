@@ -0,0 +1,67 @@
+/*
+ * Licensed to the Indoqa Software Design und Beratung GmbH (Indoqa) under
+ * one or more contributor license agreements. See the NOTICE file distributed
+ * with this work for additional information regarding copyright ownership.
+ * Indoqa licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.indoqa.cycle.plugin;
+
+/**
+ * Minimal helpers for writing JSON without a JSON library.
+ */
+public final class Json {
+
+    private Json() {
+        // hide utility class constructor
+    }
+
+    public static String quote(String value) {
+        StringBuilder result = new StringBuilder(value.length() + 2);
+
+        result.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char character = value.charAt(i);
+            switch (character) {
+                case '"':
+                    result.append("\\\"");
+                    break;
+
+                case '\\':
+                    result.append("\\\\");
+                    break;
+
+                case '\n':
+                    result.append("\\n");
+                    break;
+
+                case '\r':
+                    result.append("\\r");
+                    break;
+
+                case '\t':
+                    result.append("\\t");
+                    break;
+
+                default:
+                    if (character < 0x20) {
+                        result.append(String.format("\\u%04x", (int) character));
+                    } else {
+                        result.append(character);
+                    }
+            }
+        }
+        result.append('"');
+
+        return result.toString();
+    }
+}
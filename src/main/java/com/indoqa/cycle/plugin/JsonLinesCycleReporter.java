@@ -0,0 +1,68 @@
+/*
+ * Licensed to the Indoqa Software Design und Beratung GmbH (Indoqa) under
+ * one or more contributor license agreements. See the NOTICE file distributed
+ * with this work for additional information regarding copyright ownership.
+ * Indoqa licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.indoqa.cycle.plugin;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * Writes one JSON object per cycle and line, e.g.
+ * <code>{"packages":["a","b","a"],"dependencies":[{"from":"a","to":"b","classes":[["a.A","b.B"]]}, ...]}</code>.
+ */
+public class JsonLinesCycleReporter extends AbstractFileCycleReporter {
+
+    public JsonLinesCycleReporter(Path targetPath) throws IOException {
+        super(targetPath);
+    }
+
+    @Override
+    public void report(Cycle cycle, CycleDetector cycleDetector) throws IOException {
+        BufferedWriter writer = this.getWriter();
+        List<String> involvedPackages = cycle.getInvolvedPackages();
+
+        writer.write("{\"packages\":[");
+        for (int i = 0; i < involvedPackages.size(); i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            writer.write(Json.quote(involvedPackages.get(i)));
+        }
+
+        writer.write("],\"dependencies\":[");
+        for (int i = 0; i < involvedPackages.size() - 1; i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+
+            String startPackage = involvedPackages.get(i);
+            String endPackage = involvedPackages.get(i + 1);
+            writer.write("{\"from\":" + Json.quote(startPackage) + ",\"to\":" + Json.quote(endPackage) + ",\"classes\":[");
+
+            String separator = "";
+            for (Connection<String> eachClassConnection : cycleDetector.getClassConnections(startPackage, endPackage)) {
+                writer.write(separator);
+                writer.write("[" + Json.quote(eachClassConnection.getStart()) + "," + Json.quote(eachClassConnection.getEnd()) + "]");
+                separator = ",";
+            }
+            writer.write("]}");
+        }
+
+        writer.write("]}\n");
+    }
+}
@@ -0,0 +1,53 @@
+/*
+ * Licensed to the Indoqa Software Design und Beratung GmbH (Indoqa) under
+ * one or more contributor license agreements. See the NOTICE file distributed
+ * with this work for additional information regarding copyright ownership.
+ * Indoqa licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.indoqa.cycle.plugin;
+
+/**
+ * A named group of packages for the <code>layer</code> granularity, configured in the POM:
+ *
+ * <pre>
+ * &lt;layers&gt;
+ *   &lt;layer&gt;
+ *     &lt;name&gt;web&lt;/name&gt;
+ *     &lt;packages&gt;
+ *       &lt;package&gt;com.example.web.**&lt;/package&gt;
+ *     &lt;/packages&gt;
+ *   &lt;/layer&gt;
+ * &lt;/layers&gt;
+ * </pre>
+ */
+public class Layer {
+
+    private String name;
+    private String[] packages;
+
+    public String getName() {
+        return this.name;
+    }
+
+    public String[] getPackages() {
+        return this.packages;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public void setPackages(String[] packages) {
+        this.packages = packages;
+    }
+}
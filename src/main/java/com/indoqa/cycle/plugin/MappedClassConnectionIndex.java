@@ -0,0 +1,255 @@
+/*
+ * Licensed to the Indoqa Software Design und Beratung GmbH (Indoqa) under
+ * one or more contributor license agreements. See the NOTICE file distributed
+ * with this work for additional information regarding copyright ownership.
+ * Indoqa licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.indoqa.cycle.plugin;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Spills the class connections to memory-mapped files, so only the package graph stays on the heap. The connections must
+ * be added grouped by their source package in ascending order, like the {@link CycleDetector} does. The records of a
+ * source package are sorted by the target package and are found with a binary search, the class names are decoded from
+ * the mapped file on each lookup. Only the connections are spilled, the class dependencies they are built from are still
+ * imported onto the heap. The files are deleted by {@link #close()}.
+ */
+public class MappedClassConnectionIndex implements ClassConnectionIndex {
+
+    private static final int RECORD_SIZE = 16;
+
+    private final Path connectionsFile;
+    private final Path classNamesFile;
+
+    private DataOutputStream connectionsOutput;
+    private DataOutputStream classNamesOutput;
+    private Map<String, Integer> classNameOffsets = new HashMap<>();
+    private int classNamesSize;
+
+    private int[] recordStarts = new int[64];
+    private int packageCount;
+    private int recordCount;
+
+    private long[] pendingKeys = new long[64];
+    private int[] pendingSourceClasses = new int[64];
+    private int[] pendingTargetClasses = new int[64];
+    private int[] pendingKinds = new int[64];
+    private int pendingCount;
+
+    private ByteBuffer connections;
+    private ByteBuffer classNames;
+
+    public MappedClassConnectionIndex(Path directory) throws IOException {
+        super();
+
+        Files.createDirectories(directory);
+        this.connectionsFile = Files.createTempFile(directory, "class-connections", ".bin");
+        this.classNamesFile = Files.createTempFile(directory, "class-names", ".bin");
+        this.connectionsOutput = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(this.connectionsFile)));
+        this.classNamesOutput = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(this.classNamesFile)));
+    }
+
+    private static void delete(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            // the mapping prevents the deletion on some platforms until it is garbage collected
+            file.toFile().deleteOnExit();
+        }
+    }
+
+    private static ByteBuffer map(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            return channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+    }
+
+    @Override
+    public void add(int sourcePackage, int targetPackage, String sourceClass, String targetClass, int kinds) {
+        if (this.connections != null) {
+            throw new IllegalStateException("The index is already complete.");
+        }
+
+        try {
+            if (sourcePackage != this.packageCount - 1) {
+                this.startPackage(sourcePackage);
+            }
+
+            if (this.pendingCount == this.pendingKeys.length) {
+                int capacity = this.pendingCount * 2;
+                this.pendingKeys = Arrays.copyOf(this.pendingKeys, capacity);
+                this.pendingSourceClasses = Arrays.copyOf(this.pendingSourceClasses, capacity);
+                this.pendingTargetClasses = Arrays.copyOf(this.pendingTargetClasses, capacity);
+                this.pendingKinds = Arrays.copyOf(this.pendingKinds, capacity);
+            }
+
+            // sorting by the target package keeps the order in which the connections of a package dependency were added
+            this.pendingKeys[this.pendingCount] = (long) targetPackage << 32 | this.pendingCount;
+            this.pendingSourceClasses[this.pendingCount] = this.getClassNameOffset(sourceClass);
+            this.pendingTargetClasses[this.pendingCount] = this.getClassNameOffset(targetClass);
+            this.pendingKinds[this.pendingCount] = kinds;
+            this.pendingCount++;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public void close() {
+        try {
+            this.connectionsOutput.close();
+            this.classNamesOutput.close();
+        } catch (IOException e) {
+            // the files are deleted anyway
+        }
+
+        this.connections = null;
+        this.classNames = null;
+        delete(this.connectionsFile);
+        delete(this.classNamesFile);
+    }
+
+    @Override
+    public void complete() {
+        if (this.connections != null) {
+            return;
+        }
+
+        try {
+            this.flush();
+            this.recordStarts = Arrays.copyOf(this.recordStarts, this.packageCount + 1);
+            this.recordStarts[this.packageCount] = this.recordCount;
+
+            this.connectionsOutput.close();
+            this.classNamesOutput.close();
+            this.connections = map(this.connectionsFile);
+            this.classNames = map(this.classNamesFile);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        this.classNameOffsets = null;
+        this.pendingKeys = null;
+        this.pendingSourceClasses = null;
+        this.pendingTargetClasses = null;
+        this.pendingKinds = null;
+    }
+
+    @Override
+    public List<Connection<String>> get(int sourcePackage, int targetPackage, int dependencyKinds) {
+        if (this.connections == null) {
+            throw new IllegalStateException("The index is not complete yet.");
+        }
+
+        if (sourcePackage < 0 || sourcePackage >= this.packageCount) {
+            return Collections.emptyList();
+        }
+
+        int record = this.findFirstRecord(this.recordStarts[sourcePackage], this.recordStarts[sourcePackage + 1], targetPackage);
+        int end = this.recordStarts[sourcePackage + 1];
+
+        List<Connection<String>> result = new ArrayList<>();
+        for (; record < end && this.connections.getInt(record * RECORD_SIZE) == targetPackage; record++) {
+            int position = record * RECORD_SIZE;
+            if ((this.connections.getInt(position + 12) & dependencyKinds) == 0) {
+                continue;
+            }
+            result.add(new Connection<>(this.getClassName(this.connections.getInt(position + 4)), this.getClassName(this.connections.getInt(position + 8))));
+        }
+        return result;
+    }
+
+    private int findFirstRecord(int start, int end, int targetPackage) {
+        int low = start;
+        int high = end;
+
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (this.connections.getInt(middle * RECORD_SIZE) < targetPackage) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+
+        return low;
+    }
+
+    private void flush() throws IOException {
+        Arrays.sort(this.pendingKeys, 0, this.pendingCount);
+
+        for (int i = 0; i < this.pendingCount; i++) {
+            int index = (int) this.pendingKeys[i];
+            this.connectionsOutput.writeInt((int) (this.pendingKeys[i] >>> 32));
+            this.connectionsOutput.writeInt(this.pendingSourceClasses[index]);
+            this.connectionsOutput.writeInt(this.pendingTargetClasses[index]);
+            this.connectionsOutput.writeInt(this.pendingKinds[index]);
+        }
+
+        this.recordCount += this.pendingCount;
+        this.pendingCount = 0;
+    }
+
+    private String getClassName(int offset) {
+        int length = this.classNames.getInt(offset);
+        byte[] bytes = new byte[length];
+        this.classNames.get(offset + 4, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private int getClassNameOffset(String className) throws IOException {
+        Integer result = this.classNameOffsets.get(className);
+        if (result != null) {
+            return result;
+        }
+
+        byte[] bytes = className.getBytes(StandardCharsets.UTF_8);
+        result = this.classNamesSize;
+        this.classNamesOutput.writeInt(bytes.length);
+        this.classNamesOutput.write(bytes);
+        this.classNamesSize += 4 + bytes.length;
+        this.classNameOffsets.put(className, result);
+        return result;
+    }
+
+    private void startPackage(int sourcePackage) throws IOException {
+        if (sourcePackage < this.packageCount) {
+            throw new IllegalStateException("The connections of package " + sourcePackage + " must be added in one run.");
+        }
+
+        this.flush();
+        if (sourcePackage >= this.recordStarts.length) {
+            this.recordStarts = Arrays.copyOf(this.recordStarts, Math.max(this.recordStarts.length * 2, sourcePackage + 2));
+        }
+        for (int eachPackage = this.packageCount; eachPackage <= sourcePackage; eachPackage++) {
+            this.recordStarts[eachPackage] = this.recordCount;
+        }
+        this.packageCount = sourcePackage + 1;
+    }
+}
@@ -0,0 +1,228 @@
+/*
+ * Licensed to the Indoqa Software Design und Beratung GmbH (Indoqa) under
+ * one or more contributor license agreements. See the NOTICE file distributed
+ * with this work for additional information regarding copyright ownership.
+ * Indoqa licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.indoqa.cycle.plugin;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.IntUnaryOperator;
+
+/**
+ * Compact dependency graph: the nodes are interned to ids in the order of their names, the edges are stored in
+ * compressed sparse row format. All cycle algorithms work on the ids only. The weight of an edge is the number of times it
+ * was added, i.e. the number of class dependencies between two packages, its kinds are the bitmask of the
+ * {@link DependencyKind}s of these class dependencies.
+ */
+public final class PackageGraph {
+
+    private final String[] names;
+    private final int[] offsets;
+    private final int[] targets;
+    private final int[] weights;
+    private final int[] kinds;
+
+    private PackageGraph(String[] names, int[] offsets, int[] targets, int[] weights, int[] kinds) {
+        this.names = names;
+        this.offsets = offsets;
+        this.targets = targets;
+        this.weights = weights;
+        this.kinds = kinds;
+    }
+
+    public int getEdgeCount() {
+        return this.targets.length;
+    }
+
+    public int getEnd(int node) {
+        return this.offsets[node + 1];
+    }
+
+    public int getKinds(int edge) {
+        return this.kinds[edge];
+    }
+
+    public int getId(String name) {
+        int result = Arrays.binarySearch(this.names, name);
+        return result < 0 ? -1 : result;
+    }
+
+    public String getName(int node) {
+        return this.names[node];
+    }
+
+    public int getNodeCount() {
+        return this.names.length;
+    }
+
+    public int getSource(int edge) {
+        int low = 0;
+        int high = this.names.length - 1;
+
+        while (low < high) {
+            int middle = (low + high + 1) >>> 1;
+            if (this.offsets[middle] <= edge) {
+                low = middle;
+            } else {
+                high = middle - 1;
+            }
+        }
+
+        return low;
+    }
+
+    public int getStart(int node) {
+        return this.offsets[node];
+    }
+
+    public int getTarget(int edge) {
+        return this.targets[edge];
+    }
+
+    public int getWeight(int edge) {
+        return this.weights[edge];
+    }
+
+    /**
+     * Creates a graph with the same nodes and new edge weights. Edges with a weight of 0 are dropped, the kinds of the
+     * other edges are restricted to the given kinds.
+     */
+    public PackageGraph reweight(IntUnaryOperator weightFunction, int dependencyKinds) {
+        int[] newOffsets = new int[this.offsets.length];
+        int[] newTargets = new int[this.targets.length];
+        int[] newWeights = new int[this.targets.length];
+        int[] newKinds = new int[this.targets.length];
+
+        int edgeCount = 0;
+        for (int node = 0; node < this.names.length; node++) {
+            for (int edge = this.offsets[node]; edge < this.offsets[node + 1]; edge++) {
+                int weight = weightFunction.applyAsInt(edge);
+                if (weight > 0) {
+                    newTargets[edgeCount] = this.targets[edge];
+                    newKinds[edgeCount] = this.kinds[edge] & dependencyKinds;
+                    newWeights[edgeCount++] = weight;
+                }
+            }
+            newOffsets[node + 1] = edgeCount;
+        }
+
+        return new PackageGraph(this.names, newOffsets, Arrays.copyOf(newTargets, edgeCount), Arrays.copyOf(newWeights, edgeCount),
+            Arrays.copyOf(newKinds, edgeCount));
+    }
+
+    public static final class Builder {
+
+        private static final int TARGET_SHIFT = DependencyKind.values().length;
+        private static final int SOURCE_SHIFT = TARGET_SHIFT + 32;
+        private static final int MAX_NODE_COUNT = 1 << 63 - SOURCE_SHIFT;
+
+        private final Map<String, Integer> ids = new HashMap<>();
+        private String[] names = new String[64];
+        private long[] edges = new long[256];
+        private int edgeCount;
+
+        public void addEdge(String source, String target) {
+            this.addEdge(source, target, DependencyKind.ALL);
+        }
+
+        /**
+         * @param kinds The bitmask of the {@link DependencyKind}s of the class dependency behind the edge.
+         */
+        public void addEdge(String source, String target, int kinds) {
+            int sourceId = this.addNode(source);
+            int targetId = this.addNode(target);
+            if (sourceId == targetId) {
+                return;
+            }
+
+            if (this.edgeCount == this.edges.length) {
+                this.edges = Arrays.copyOf(this.edges, this.edgeCount * 2);
+            }
+            this.edges[this.edgeCount++] = (long) sourceId << SOURCE_SHIFT | (long) targetId << TARGET_SHIFT | kinds;
+        }
+
+        public int addNode(String name) {
+            Integer id = this.ids.get(name);
+            if (id != null) {
+                return id;
+            }
+
+            int result = this.ids.size();
+            if (result == MAX_NODE_COUNT) {
+                throw new IllegalStateException("A package graph cannot have more than " + MAX_NODE_COUNT + " nodes.");
+            }
+            if (result == this.names.length) {
+                this.names = Arrays.copyOf(this.names, result * 2);
+            }
+            this.names[result] = name;
+            this.ids.put(name, result);
+            return result;
+        }
+
+        public PackageGraph build() {
+            int nodeCount = this.ids.size();
+            String[] sortedNames = Arrays.copyOf(this.names, nodeCount);
+            Arrays.sort(sortedNames);
+
+            int[] mapping = new int[nodeCount];
+            for (int i = 0; i < nodeCount; i++) {
+                mapping[this.ids.get(sortedNames[i])] = i;
+            }
+
+            long[] sortedEdges = new long[this.edgeCount];
+            for (int i = 0; i < this.edgeCount; i++) {
+                long edge = this.edges[i];
+                sortedEdges[i] = (long) mapping[getSource(edge)] << SOURCE_SHIFT | (long) mapping[getTarget(edge)] << TARGET_SHIFT
+                    | edge & DependencyKind.ALL;
+            }
+            Arrays.sort(sortedEdges);
+
+            int[] offsets = new int[nodeCount + 1];
+            int[] targets = new int[this.edgeCount];
+            int[] weights = new int[this.edgeCount];
+            int[] kinds = new int[this.edgeCount];
+            int targetCount = 0;
+            for (int i = 0; i < sortedEdges.length; i++) {
+                int edgeKinds = (int) (sortedEdges[i] & DependencyKind.ALL);
+                if (i > 0 && sortedEdges[i] >>> TARGET_SHIFT == sortedEdges[i - 1] >>> TARGET_SHIFT) {
+                    weights[targetCount - 1]++;
+                    kinds[targetCount - 1] |= edgeKinds;
+                    continue;
+                }
+
+                offsets[getSource(sortedEdges[i]) + 1]++;
+                weights[targetCount] = 1;
+                kinds[targetCount] = edgeKinds;
+                targets[targetCount++] = getTarget(sortedEdges[i]);
+            }
+
+            for (int i = 0; i < nodeCount; i++) {
+                offsets[i + 1] += offsets[i];
+            }
+
+            return new PackageGraph(sortedNames, offsets, Arrays.copyOf(targets, targetCount), Arrays.copyOf(weights, targetCount),
+                Arrays.copyOf(kinds, targetCount));
+        }
+
+        private static int getSource(long edge) {
+            return (int) (edge >>> SOURCE_SHIFT);
+        }
+
+        private static int getTarget(long edge) {
+            return (int) (edge >>> TARGET_SHIFT);
+        }
+    }
+}
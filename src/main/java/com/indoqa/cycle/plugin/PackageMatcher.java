@@ -0,0 +1,118 @@
+/*
+ * Licensed to the Indoqa Software Design und Beratung GmbH (Indoqa) under
+ * one or more contributor license agreements. See the NOTICE file distributed
+ * with this work for additional information regarding copyright ownership.
+ * Indoqa licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.indoqa.cycle.plugin;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Matches package names against patterns compiled into a trie of name segments. A pattern segment <code>*</code>
+ * matches one arbitrary segment, a trailing <code>**</code> matches the package itself and all of its subpackages, e.g.
+ * <code>com.foo.generated.**</code>.
+ */
+public final class PackageMatcher {
+
+    private static final String ANY_SEGMENT = "*";
+    private static final String ANY_SUBPACKAGE = "**";
+
+    private final Node root = new Node();
+
+    private PackageMatcher() {
+        super();
+    }
+
+    public static PackageMatcher compile(String... patterns) {
+        PackageMatcher result = new PackageMatcher();
+
+        if (patterns != null) {
+            for (String eachPattern : patterns) {
+                result.add(eachPattern.trim());
+            }
+        }
+
+        return result;
+    }
+
+    public boolean isEmpty() {
+        return this.root.children.isEmpty() && this.root.anySegment == null && !this.root.subtree;
+    }
+
+    public boolean matches(String packageName) {
+        if (this.isEmpty()) {
+            return false;
+        }
+
+        return this.root.matches(packageName.isEmpty() ? new String[0] : packageName.split("\\."), 0);
+    }
+
+    private void add(String pattern) {
+        if (pattern.isEmpty()) {
+            return;
+        }
+
+        String[] segments = pattern.split("\\.");
+        Node node = this.root;
+        for (int i = 0; i < segments.length; i++) {
+            String segment = segments[i];
+
+            if (segment.equals(ANY_SUBPACKAGE)) {
+                if (i != segments.length - 1) {
+                    throw new IllegalArgumentException("'" + ANY_SUBPACKAGE + "' is only allowed at the end of the package pattern '" + pattern + "'.");
+                }
+                node.subtree = true;
+                return;
+            }
+
+            if (segment.equals(ANY_SEGMENT)) {
+                if (node.anySegment == null) {
+                    node.anySegment = new Node();
+                }
+                node = node.anySegment;
+                continue;
+            }
+
+            node = node.children.computeIfAbsent(segment, key -> new Node());
+        }
+
+        node.terminal = true;
+    }
+
+    private static final class Node {
+
+        private final Map<String, Node> children = new HashMap<>();
+        private Node anySegment;
+        private boolean terminal;
+        private boolean subtree;
+
+        public boolean matches(String[] segments, int index) {
+            if (this.subtree) {
+                return true;
+            }
+
+            if (index == segments.length) {
+                return this.terminal;
+            }
+
+            Node child = this.children.get(segments[index]);
+            if (child != null && child.matches(segments, index + 1)) {
+                return true;
+            }
+
+            return this.anySegment != null && this.anySegment.matches(segments, index + 1);
+        }
+    }
+}
@@ -0,0 +1,169 @@
+/*
+ * Licensed to the Indoqa Software Design und Beratung GmbH (Indoqa) under
+ * one or more contributor license agreements. See the NOTICE file distributed
+ * with this work for additional information regarding copyright ownership.
+ * Indoqa licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.indoqa.cycle.plugin;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugin.MojoFailureException;
+import org.apache.maven.plugins.annotations.Mojo;
+import org.apache.maven.plugins.annotations.Parameter;
+import org.apache.maven.project.MavenProject;
+
+/**
+ * Analyzes the classes of all modules of the reactor as one package graph. This finds cycles between packages of
+ * different modules, e.g. split packages. Run it after the modules have been compiled, e.g.
+ * <code>mvn verify com.indoqa:cycle-maven-plugin:analyze-reactor</code>.
+ */
+@Mojo(name = "analyze-reactor", aggregator = true, threadSafe = true)
+public class ReactorCycleMojo extends AbstractCycleMojo {
+
+    @Parameter(defaultValue = "${reactorProjects}", readonly = true)
+    private List<MavenProject> reactorProjects;
+
+    @Parameter(property = "project.build.directory")
+    private File targetDirectory;
+
+    private static String getHeadline(Set<String> modules) {
+        if (modules.size() == 1) {
+            return "Detected package cycle in module " + modules.iterator().next() + ":";
+        }
+
+        return "Detected package cycle across modules " + String.join(", ", modules) + ":";
+    }
+
+    private static Set<String> getModules(CycleDetector cycleDetector, Cycle cycle, Map<String, Set<String>> modulesByClass) {
+        Set<String> result = new TreeSet<>();
+
+        for (String eachClass : cycleDetector.getInvolvedClasses(cycle)) {
+            result.addAll(modulesByClass.getOrDefault(eachClass, Collections.emptySet()));
+        }
+
+        return result;
+    }
+
+    @Override
+    public void execute() throws MojoExecutionException, MojoFailureException {
+        if (this.isSkipped()) {
+            return;
+        }
+
+        List<MavenProject> modules = new ArrayList<>();
+        for (MavenProject eachProject : this.reactorProjects) {
+            if (!isRelevant(eachProject)) {
+                this.getLog().debug("Ignoring module " + eachProject.getArtifactId() + " with packaging '" + eachProject.getPackaging() + "'");
+                continue;
+            }
+
+            if (!new File(eachProject.getBuild().getOutputDirectory()).exists()) {
+                this.getLog().warn("Class files of module " + eachProject.getArtifactId() + " do not exist!");
+                continue;
+            }
+
+            modules.add(eachProject);
+        }
+
+        this.getLog().info("Analyzing class files of " + modules.size() + " modules.");
+
+        Map<String, Set<String>> modulesByClass = new HashMap<>();
+        ClassConnectionIndex classConnectionIndex = this.createClassConnectionIndex(this.targetDirectory);
+        ForkJoinPool pool = this.createPool();
+        CycleSummary summary;
+        try {
+            CycleDetector cycleDetector = this.createCycleDetector(modules, modulesByClass, classConnectionIndex, pool);
+            CycleBaseline baseline = this.loadBaseline();
+            cycleDetector.setBaseline(baseline);
+            cycleDetector.setPool(pool);
+
+            summary = new CycleSummary(this.summaryLimit, cycle -> getHeadline(getModules(cycleDetector, cycle, modulesByClass)));
+
+            try (CycleReporter reporter = this.createReporter(this.targetDirectory, "reactor-cycles", summary)) {
+                CycleSearchResult searchResult = cycleDetector.findPackageCycles(this.createBudget(), new CycleMetrics(), reporter);
+                this.logIncompleteComponents(searchResult);
+                this.completeBaseline(baseline, searchResult);
+                if (!summary.isEmpty()) {
+                    this.suggestCuts(cycleDetector, this.targetDirectory, "reactor-cycle-cuts", new CycleMetrics());
+                }
+            } catch (IOException e) {
+                throw new MojoExecutionException("Failed to write the cycle reports to " + this.targetDirectory, e);
+            }
+        } finally {
+            pool.shutdown();
+            classConnectionIndex.close();
+        }
+
+        if (summary.isEmpty()) {
+            return;
+        }
+
+        throw new MojoExecutionException(summary.getMessage());
+    }
+
+    private CycleDetector createCycleDetector(List<MavenProject> modules, Map<String, Set<String>> modulesByClass,
+            ClassConnectionIndex classConnectionIndex, ForkJoinPool pool) throws MojoExecutionException {
+        try {
+            ClassDependencyImporter classDependencyImporter = this.createImporter(pool);
+            Map<MavenProject, List<ClassDependencies>> classDependenciesByModule = new ConcurrentHashMap<>();
+            pool.submit(
+                () -> modules.parallelStream()
+                    .forEach(module -> classDependenciesByModule.put(module, this.importModule(module, classDependencyImporter, pool))))
+                .join();
+
+            List<ClassDependencies> allClassDependencies = new ArrayList<>();
+            for (MavenProject eachModule : modules) {
+                for (ClassDependencies eachClassDependencies : classDependenciesByModule.get(eachModule)) {
+                    allClassDependencies.add(eachClassDependencies);
+                    modulesByClass.computeIfAbsent(eachClassDependencies.getClassName(), key -> new TreeSet<>()).add(eachModule.getArtifactId());
+                }
+            }
+
+            CycleDetector result = new CycleDetector(allClassDependencies, this.excludedPackages, this.createGranularity(),
+                classConnectionIndex);
+
+            int dependencyKinds = this.createDependencyKinds();
+            if (dependencyKinds != DependencyKind.ALL) {
+                result = result.filter(dependencyKinds);
+            }
+            return result;
+        } catch (UncheckedIOException e) {
+            throw new MojoExecutionException("Failed to detect package cycles!", e.getCause());
+        }
+    }
+
+    private List<ClassDependencies> importModule(MavenProject module, ClassDependencyImporter classDependencyImporter, ForkJoinPool pool) {
+        File moduleTargetDirectory = new File(module.getBuild().getDirectory());
+
+        try {
+            DependencyCache dependencyCache = this.loadDependencyCache(moduleTargetDirectory, classDependencyImporter, pool);
+            List<ClassDependencies> result = dependencyCache.update(new File(module.getBuild().getOutputDirectory()));
+            this.getLog().debug(
+                "Imported " + dependencyCache.getImportedCount() + " class files of module " + module.getArtifactId() + ", reused "
+                    + dependencyCache.getCachedCount() + " from cache.");
+
+            this.saveDependencyCache(moduleTargetDirectory, dependencyCache);
+
+            return result;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
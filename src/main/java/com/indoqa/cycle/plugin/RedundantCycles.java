@@ -0,0 +1,125 @@
+/*
+ * Licensed to the Indoqa Software Design und Beratung GmbH (Indoqa) under
+ * one or more contributor license agreements. See the NOTICE file distributed
+ * with this work for additional information regarding copyright ownership.
+ * Indoqa licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.indoqa.cycle.plugin;
+
+import java.util.*;
+
+/**
+ * Removes duplicate cycles and cycles whose packages include all packages of another cycle. Cycles are rotated to a
+ * canonical form for the duplicate check, the package sets are bitsets over interned package ids. Kept cycles are
+ * indexed by their lowest package id, so a candidate is only compared with cycles that can be a subset of it.
+ */
+public final class RedundantCycles {
+
+    private RedundantCycles() {
+        // hide utility class constructor
+    }
+
+    public static List<Cycle> remove(List<Cycle> cycles) {
+        Map<String, Integer> packageIds = new HashMap<>();
+        Map<Cycle, CanonicalCycle> canonicalCycles = new LinkedHashMap<>();
+
+        for (Cycle eachCycle : cycles) {
+            Cycle normalizedCycle = eachCycle.normalize();
+            if (canonicalCycles.containsKey(normalizedCycle)) {
+                continue;
+            }
+
+            BitSet packages = new BitSet();
+            for (String eachPackage : normalizedCycle.getLoop()) {
+                packages.set(packageIds.computeIfAbsent(eachPackage, key -> packageIds.size()));
+            }
+            canonicalCycles.put(normalizedCycle, new CanonicalCycle(normalizedCycle, packages));
+        }
+
+        List<CanonicalCycle> candidates = new ArrayList<>(canonicalCycles.values());
+        candidates.sort(CanonicalCycle.SMALLEST_FIRST);
+
+        Map<Integer, List<CanonicalCycle>> keptByLowestPackage = new HashMap<>();
+        List<Cycle> result = new ArrayList<>();
+        for (CanonicalCycle eachCandidate : candidates) {
+            if (eachCandidate.isSubsumed(keptByLowestPackage)) {
+                continue;
+            }
+
+            keptByLowestPackage.computeIfAbsent(eachCandidate.getLowestPackage(), key -> new ArrayList<>()).add(eachCandidate);
+            result.add(eachCandidate.getCycle());
+        }
+
+        result.sort(Cycle.LONGEST_FIRST);
+        return result;
+    }
+
+    private static final class CanonicalCycle {
+
+        public static final Comparator<CanonicalCycle> SMALLEST_FIRST = Comparator
+            .comparingInt((CanonicalCycle canonicalCycle) -> canonicalCycle.packageCount)
+            .thenComparing(canonicalCycle -> canonicalCycle.cycle.toString());
+
+        private final Cycle cycle;
+        private final BitSet packages;
+        private final long[] words;
+        private final int packageCount;
+
+        public CanonicalCycle(Cycle cycle, BitSet packages) {
+            super();
+            this.cycle = cycle;
+            this.packages = packages;
+            this.words = packages.toLongArray();
+            this.packageCount = packages.cardinality();
+        }
+
+        public Cycle getCycle() {
+            return this.cycle;
+        }
+
+        public int getLowestPackage() {
+            return this.packages.nextSetBit(0);
+        }
+
+        public boolean isSubsumed(Map<Integer, List<CanonicalCycle>> keptByLowestPackage) {
+            for (int eachPackage = this.packages.nextSetBit(0); eachPackage >= 0; eachPackage = this.packages.nextSetBit(eachPackage + 1)) {
+                List<CanonicalCycle> keptCycles = keptByLowestPackage.get(eachPackage);
+                if (keptCycles == null) {
+                    continue;
+                }
+
+                for (CanonicalCycle eachKeptCycle : keptCycles) {
+                    if (eachKeptCycle.isSubsetOf(this)) {
+                        return true;
+                    }
+                }
+            }
+
+            return false;
+        }
+
+        private boolean isSubsetOf(CanonicalCycle other) {
+            if (this.words.length > other.words.length) {
+                return false;
+            }
+
+            for (int i = 0; i < this.words.length; i++) {
+                if ((this.words[i] & ~other.words[i]) != 0) {
+                    return false;
+                }
+            }
+
+            return true;
+        }
+    }
+}
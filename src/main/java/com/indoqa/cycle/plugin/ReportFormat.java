@@ -0,0 +1,70 @@
+/*
+ * Licensed to the Indoqa Software Design und Beratung GmbH (Indoqa) under
+ * one or more contributor license agreements. See the NOTICE file distributed
+ * with this work for additional information regarding copyright ownership.
+ * Indoqa licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.indoqa.cycle.plugin;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Locale;
+
+public enum ReportFormat {
+
+    TEXT("text", "txt"), JSON_LINES("jsonl", "jsonl"), SARIF("sarif", "sarif"), DOT("dot", "dot");
+
+    private final String name;
+    private final String extension;
+
+    ReportFormat(String name, String extension) {
+        this.name = name;
+        this.extension = extension;
+    }
+
+    public static ReportFormat get(String name) {
+        String normalizedName = name.trim().toLowerCase(Locale.ROOT);
+
+        for (ReportFormat eachReportFormat : values()) {
+            if (eachReportFormat.name.equals(normalizedName)) {
+                return eachReportFormat;
+            }
+        }
+
+        return null;
+    }
+
+    public CycleReporter createReporter(Path targetPath) throws IOException {
+        switch (this) {
+            case JSON_LINES:
+                return new JsonLinesCycleReporter(targetPath);
+
+            case SARIF:
+                return new SarifCycleReporter(targetPath);
+
+            case DOT:
+                return new DotCycleReporter(targetPath);
+
+            default:
+                return new TextCycleReporter(targetPath);
+        }
+    }
+
+    public String getFileName(String baseName) {
+        return baseName + "." + this.extension;
+    }
+
+    public String getName() {
+        return this.name;
+    }
+}
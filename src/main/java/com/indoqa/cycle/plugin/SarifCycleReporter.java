@@ -0,0 +1,77 @@
+/*
+ * Licensed to the Indoqa Software Design und Beratung GmbH (Indoqa) under
+ * one or more contributor license agreements. See the NOTICE file distributed
+ * with this work for additional information regarding copyright ownership.
+ * Indoqa licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.indoqa.cycle.plugin;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * Writes the cycles as results of a SARIF 2.1.0 log. Packages are reported as logical locations, because a package
+ * cycle has no single source location.
+ */
+public class SarifCycleReporter extends AbstractFileCycleReporter {
+
+    private static final String RULE_ID = "package-cycle";
+
+    private boolean hasResults;
+
+    public SarifCycleReporter(Path targetPath) throws IOException {
+        super(targetPath);
+
+        BufferedWriter writer = this.getWriter();
+        writer.write("{\n");
+        writer.write("  \"$schema\": \"https://json.schemastore.org/sarif-2.1.0.json\",\n");
+        writer.write("  \"version\": \"2.1.0\",\n");
+        writer.write("  \"runs\": [{\n");
+        writer.write("    \"tool\": {\"driver\": {\"name\": \"cycle-maven-plugin\", \"informationUri\": ");
+        writer.write("\"https://github.com/Indoqa/cycle-maven-plugin\", \"rules\": [{\"id\": \"" + RULE_ID + "\", ");
+        writer.write("\"shortDescription\": {\"text\": \"Cyclic dependency between packages\"}}]}},\n");
+        writer.write("    \"results\": [");
+    }
+
+    @Override
+    public void close() throws IOException {
+        BufferedWriter writer = this.getWriter();
+        writer.write(this.hasResults ? "\n    ]\n" : "]\n");
+        writer.write("  }]\n");
+        writer.write("}\n");
+
+        super.close();
+    }
+
+    @Override
+    public void report(Cycle cycle, CycleDetector cycleDetector) throws IOException {
+        BufferedWriter writer = this.getWriter();
+        List<String> loop = cycle.getLoop();
+
+        writer.write(this.hasResults ? ",\n" : "\n");
+        this.hasResults = true;
+
+        writer.write("      {\"ruleId\": \"" + RULE_ID + "\", \"level\": \"error\", \"message\": {\"text\": ");
+        writer.write(Json.quote("Package cycle " + String.join(" -> ", cycle.getInvolvedPackages())));
+        writer.write("}, \"locations\": [{\"logicalLocations\": [");
+        for (int i = 0; i < loop.size(); i++) {
+            if (i > 0) {
+                writer.write(", ");
+            }
+            writer.write("{\"fullyQualifiedName\": " + Json.quote(loop.get(i)) + ", \"kind\": \"namespace\"}");
+        }
+        writer.write("]}], \"partialFingerprints\": {\"packageCycle\": " + Json.quote(String.join(",", cycle.normalize().getLoop())) + "}}");
+    }
+}
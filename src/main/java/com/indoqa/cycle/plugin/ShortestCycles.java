@@ -0,0 +1,263 @@
+/*
+ * Licensed to the Indoqa Software Design und Beratung GmbH (Indoqa) under
+ * one or more contributor license agreements. See the NOTICE file distributed
+ * with this work for additional information regarding copyright ownership.
+ * Indoqa licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.indoqa.cycle.plugin;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Finds the shortest cycle through each node of a strongly connected component with a breadth-first search that only
+ * follows edges within the component. Cycles found from several nodes are returned once. This gives at most one cycle
+ * per node, all of them short, instead of all elementary cycles.
+ * <p>
+ * With a baseline, the search also looks for the shortest cycle through every edge of the component that no found cycle
+ * contains. A cycle that grew from accepted cycles contains such a new edge, so it is found even if the shortest cycle
+ * through each node is accepted. Recording the cycles of such a search covers every edge, and checking against the
+ * recording finds each recorded cycle again.
+ */
+public final class ShortestCycles implements CycleFinder {
+
+    private final PackageGraph graph;
+    private final int[] localIndexes;
+
+    private int[] queue;
+    private int[] parents;
+    private int[] depths;
+    private long exploredPaths;
+    private boolean cycleLimitReached;
+    private boolean timedOut;
+
+    public ShortestCycles(PackageGraph graph) {
+        super();
+        this.graph = graph;
+        this.localIndexes = new int[graph.getNodeCount()];
+        Arrays.fill(this.localIndexes, -1);
+    }
+
+    @Override
+    public List<int[]> find(int[] component, int maxCycles, int maxLength, long deadline, AcceptedCycles acceptedCycles) {
+        int size = component.length;
+        this.queue = new int[size];
+        this.parents = new int[size];
+        this.depths = new int[size];
+        this.timedOut = false;
+
+        for (int i = 0; i < size; i++) {
+            this.localIndexes[component[i]] = i;
+        }
+
+        List<int[]> result = new ArrayList<>();
+        Set<List<Integer>> foundCycles = new HashSet<>();
+        try {
+            for (int start = 0; start < size && result.size() < maxCycles; start++) {
+                if (this.isTimedOut(deadline)) {
+                    break;
+                }
+
+                int[] cycle = this.findShortestCycle(component, start, maxLength);
+                if (cycle != null && foundCycles.add(getKey(cycle)) && (acceptedCycles == null || !acceptedCycles.isAccepted(cycle))) {
+                    result.add(cycle);
+                }
+            }
+
+            if (acceptedCycles != null) {
+                this.findUncoveredCycles(component, maxCycles, maxLength, deadline, acceptedCycles, foundCycles, result);
+            }
+
+            this.cycleLimitReached = result.size() >= maxCycles;
+            return result;
+        } finally {
+            for (int eachNode : component) {
+                this.localIndexes[eachNode] = -1;
+            }
+        }
+    }
+
+    @Override
+    public long getExploredPaths() {
+        return this.exploredPaths;
+    }
+
+    @Override
+    public boolean isCycleLimitReached() {
+        return this.cycleLimitReached;
+    }
+
+    @Override
+    public boolean isTimedOut() {
+        return this.timedOut;
+    }
+
+    private static List<Integer> getKey(int[] cycle) {
+        int start = 0;
+        for (int i = 1; i < cycle.length; i++) {
+            if (cycle[i] < cycle[start]) {
+                start = i;
+            }
+        }
+
+        List<Integer> result = new ArrayList<>(cycle.length);
+        for (int i = 0; i < cycle.length; i++) {
+            result.add(cycle[(start + i) % cycle.length]);
+        }
+        return result;
+    }
+
+    private static long getEdgeKey(int source, int target) {
+        return (long) source << 32 | target;
+    }
+
+    /**
+     * The shortest path from the target back to the source closes the cycle source -> target -> ... -> source.
+     */
+    private int[] findShortestCycle(int[] component, int source, int target, int maxLength) {
+        Arrays.fill(this.parents, -1);
+
+        int head = 0;
+        int tail = 0;
+        this.queue[tail++] = target;
+        this.parents[target] = target;
+        this.depths[target] = 1;
+
+        while (head < tail) {
+            int node = this.queue[head++];
+            int nodeId = component[node];
+            this.exploredPaths++;
+
+            for (int edge = this.graph.getStart(nodeId); edge < this.graph.getEnd(nodeId); edge++) {
+                int next = this.localIndexes[this.graph.getTarget(edge)];
+                if (next == -1) {
+                    continue;
+                }
+
+                if (next == source) {
+                    int[] path = this.toCycle(component, node);
+                    int[] result = new int[path.length + 1];
+                    result[0] = component[source];
+                    System.arraycopy(path, 0, result, 1, path.length);
+                    return result;
+                }
+
+                if (this.parents[next] == -1 && this.depths[node] + 1 < maxLength) {
+                    this.parents[next] = node;
+                    this.depths[next] = this.depths[node] + 1;
+                    this.queue[tail++] = next;
+                }
+            }
+        }
+
+        return null;
+    }
+
+    private int[] findShortestCycle(int[] component, int start, int maxLength) {
+        Arrays.fill(this.parents, -1);
+
+        int head = 0;
+        int tail = 0;
+        this.queue[tail++] = start;
+        this.parents[start] = start;
+        this.depths[start] = 1;
+
+        while (head < tail) {
+            int node = this.queue[head++];
+            int nodeId = component[node];
+            this.exploredPaths++;
+
+            for (int edge = this.graph.getStart(nodeId); edge < this.graph.getEnd(nodeId); edge++) {
+                int target = this.localIndexes[this.graph.getTarget(edge)];
+                if (target == -1) {
+                    continue;
+                }
+
+                if (target == start) {
+                    return this.toCycle(component, node);
+                }
+
+                if (this.parents[target] == -1 && this.depths[node] < maxLength) {
+                    this.parents[target] = node;
+                    this.depths[target] = this.depths[node] + 1;
+                    this.queue[tail++] = target;
+                }
+            }
+        }
+
+        return null;
+    }
+
+    /**
+     * Adds the shortest cycle through each edge that no cycle found so far contains. Accepted cycles are found as well, so
+     * the search takes the same path with and without a recorded baseline and finds every recorded cycle again.
+     */
+    private void findUncoveredCycles(int[] component, int maxCycles, int maxLength, long deadline, AcceptedCycles acceptedCycles,
+            Set<List<Integer>> foundCycles, List<int[]> result) {
+        Set<Long> coveredEdges = new HashSet<>();
+        for (List<Integer> eachCycle : foundCycles) {
+            for (int i = 0; i < eachCycle.size(); i++) {
+                coveredEdges.add(getEdgeKey(eachCycle.get(i), eachCycle.get((i + 1) % eachCycle.size())));
+            }
+        }
+
+        for (int source = 0; source < component.length && result.size() < maxCycles; source++) {
+            int sourceId = component[source];
+            for (int edge = this.graph.getStart(sourceId); edge < this.graph.getEnd(sourceId) && result.size() < maxCycles; edge++) {
+                int targetId = this.graph.getTarget(edge);
+                int target = this.localIndexes[targetId];
+                if (target == -1 || coveredEdges.contains(getEdgeKey(sourceId, targetId))) {
+                    continue;
+                }
+                if (this.isTimedOut(deadline)) {
+                    return;
+                }
+
+                int[] cycle = this.findShortestCycle(component, source, target, maxLength);
+                if (cycle == null) {
+                    continue;
+                }
+
+                for (int i = 0; i < cycle.length; i++) {
+                    coveredEdges.add(getEdgeKey(cycle[i], cycle[(i + 1) % cycle.length]));
+                }
+                if (foundCycles.add(getKey(cycle)) && !acceptedCycles.isAccepted(cycle)) {
+                    result.add(cycle);
+                }
+            }
+        }
+    }
+
+    private boolean isTimedOut(long deadline) {
+        if (deadline != 0 && System.nanoTime() - deadline > 0) {
+            this.timedOut = true;
+        }
+
+        return this.timedOut;
+    }
+
+    private int[] toCycle(int[] component, int last) {
+        int[] result = new int[this.depths[last]];
+
+        int node = last;
+        for (int i = result.length - 1; i >= 0; i--) {
+            result[i] = component[node];
+            node = this.parents[node];
+        }
+
+        return result;
+    }
+}
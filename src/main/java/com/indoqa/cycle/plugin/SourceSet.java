@@ -0,0 +1,70 @@
+/*
+ * Licensed to the Indoqa Software Design und Beratung GmbH (Indoqa) under
+ * one or more contributor license agreements. See the NOTICE file distributed
+ * with this work for additional information regarding copyright ownership.
+ * Indoqa licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.indoqa.cycle.plugin;
+
+import java.util.Locale;
+
+/**
+ * The class roots a class was imported from and the views of the shared package graph that are analyzed.
+ */
+public enum SourceSet {
+
+    MAIN("main", 1), TEST("test", 2), MAIN_AND_TEST("main+test", 3);
+
+    private final String name;
+    private final int mask;
+
+    SourceSet(String name, int mask) {
+        this.name = name;
+        this.mask = mask;
+    }
+
+    public static SourceSet get(String name) {
+        String normalizedName = name.trim().toLowerCase(Locale.ROOT);
+
+        for (SourceSet eachSourceSet : values()) {
+            if (eachSourceSet.name.equals(normalizedName)) {
+                return eachSourceSet;
+            }
+        }
+
+        return null;
+    }
+
+    /**
+     * @return The name of a report of this view, e.g. <code>cycles</code> for main and <code>cycles-test</code> for test.
+     */
+    public String getFileName(String baseName) {
+        if (this == MAIN) {
+            return baseName;
+        }
+
+        return baseName + "-" + this.name.replace('+', '-');
+    }
+
+    public int getMask() {
+        return this.mask;
+    }
+
+    public String getName() {
+        return this.name;
+    }
+
+    public boolean includes(SourceSet other) {
+        return (this.mask & other.mask) == other.mask;
+    }
+}
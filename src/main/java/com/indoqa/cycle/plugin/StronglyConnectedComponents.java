@@ -0,0 +1,100 @@
+/*
+ * Licensed to the Indoqa Software Design und Beratung GmbH (Indoqa) under
+ * one or more contributor license agreements. See the NOTICE file distributed
+ * with this work for additional information regarding copyright ownership.
+ * Indoqa licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.indoqa.cycle.plugin;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Iterative variant of Tarjan's algorithm. The members of each component are sorted by their id.
+ */
+public final class StronglyConnectedComponents {
+
+    private StronglyConnectedComponents() {
+        // hide utility class constructor
+    }
+
+    public static List<int[]> find(PackageGraph graph) {
+        int nodeCount = graph.getNodeCount();
+        int[] index = new int[nodeCount];
+        int[] lowLink = new int[nodeCount];
+        boolean[] onStack = new boolean[nodeCount];
+        int[] stack = new int[nodeCount];
+        int[] callStack = new int[nodeCount];
+        int[] nextEdge = new int[nodeCount];
+        Arrays.fill(index, -1);
+
+        List<int[]> result = new ArrayList<>();
+        int stackSize = 0;
+        int nextIndex = 0;
+
+        for (int root = 0; root < nodeCount; root++) {
+            if (index[root] != -1) {
+                continue;
+            }
+
+            int callDepth = 0;
+            callStack[callDepth++] = root;
+            index[root] = lowLink[root] = nextIndex++;
+            nextEdge[root] = graph.getStart(root);
+            stack[stackSize++] = root;
+            onStack[root] = true;
+
+            while (callDepth > 0) {
+                int node = callStack[callDepth - 1];
+
+                if (nextEdge[node] < graph.getEnd(node)) {
+                    int target = graph.getTarget(nextEdge[node]++);
+                    if (index[target] == -1) {
+                        index[target] = lowLink[target] = nextIndex++;
+                        nextEdge[target] = graph.getStart(target);
+                        stack[stackSize++] = target;
+                        onStack[target] = true;
+                        callStack[callDepth++] = target;
+                    } else if (onStack[target]) {
+                        lowLink[node] = Math.min(lowLink[node], index[target]);
+                    }
+                    continue;
+                }
+
+                callDepth--;
+                if (callDepth > 0) {
+                    int parent = callStack[callDepth - 1];
+                    lowLink[parent] = Math.min(lowLink[parent], lowLink[node]);
+                }
+
+                if (lowLink[node] != index[node]) {
+                    continue;
+                }
+
+                int start = stackSize;
+                do {
+                    start--;
+                    onStack[stack[start]] = false;
+                } while (stack[start] != node);
+
+                int[] component = Arrays.copyOfRange(stack, start, stackSize);
+                Arrays.sort(component);
+                result.add(component);
+                stackSize = start;
+            }
+        }
+
+        return result;
+    }
+}
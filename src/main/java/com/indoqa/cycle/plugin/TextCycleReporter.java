@@ -0,0 +1,80 @@
+/*
+ * Licensed to the Indoqa Software Design und Beratung GmbH (Indoqa) under
+ * one or more contributor license agreements. See the NOTICE file distributed
+ * with this work for additional information regarding copyright ownership.
+ * Indoqa licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.indoqa.cycle.plugin;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * Writes the cycles and the involved classes of each package in a human readable layout.
+ */
+public class TextCycleReporter extends AbstractFileCycleReporter {
+
+    private static final String NEW_LINE = "\r\n";
+
+    public TextCycleReporter(Path targetPath) throws IOException {
+        super(targetPath);
+    }
+
+    private static void indent(BufferedWriter writer, int depth) throws IOException {
+        for (int i = 0; i < depth; i++) {
+            writer.write("  ");
+        }
+    }
+
+    @Override
+    public void report(Cycle cycle, CycleDetector cycleDetector) throws IOException {
+        BufferedWriter writer = this.getWriter();
+
+        writer.write("Cycle");
+        writer.write(NEW_LINE);
+        for (String eachPackage : cycle.getInvolvedPackages()) {
+            indent(writer, 1);
+            writer.write(eachPackage);
+            writer.write(NEW_LINE);
+        }
+
+        writer.write(NEW_LINE);
+        indent(writer, 1);
+        writer.write("Involved Classes From Each Package");
+        writer.write(NEW_LINE);
+
+        List<String> involvedPackages = cycle.getInvolvedPackages();
+        for (int i = 0; i < involvedPackages.size() - 1; i++) {
+            String startPackage = involvedPackages.get(i);
+            String endPackage = involvedPackages.get(i + 1);
+
+            indent(writer, 2);
+            writer.write(startPackage);
+            writer.write(NEW_LINE);
+
+            for (Connection<String> eachClassConnection : cycleDetector.getClassConnections(startPackage, endPackage)) {
+                indent(writer, 3);
+                writer.write(eachClassConnection.getStart());
+                writer.write(" -> ");
+                writer.write(eachClassConnection.getEnd());
+                writer.write(NEW_LINE);
+            }
+
+            writer.write(NEW_LINE);
+        }
+
+        writer.write(NEW_LINE);
+    }
+}
@@ -0,0 +1,281 @@
+/*
+ * Licensed to the Indoqa Software Design und Beratung GmbH (Indoqa) under
+ * one or more contributor license agreements. See the NOTICE file distributed
+ * with this work for additional information regarding copyright ownership.
+ * Indoqa licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.indoqa.cycle.plugin;
+
+import static java.nio.file.StandardWatchEventKinds.ENTRY_CREATE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_DELETE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_MODIFY;
+import static java.nio.file.StandardWatchEventKinds.OVERFLOW;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.*;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugin.MojoFailureException;
+import org.apache.maven.plugins.annotations.Mojo;
+import org.apache.maven.plugins.annotations.Parameter;
+
+/**
+ * Keeps the class dependencies of the module in memory and reports new and resolved package cycles whenever class files
+ * change, e.g. after the IDE compiled. Run it with <code>mvn com.indoqa:cycle-maven-plugin:watch</code> and stop it
+ * with Ctrl+C.
+ */
+@Mojo(name = "watch", threadSafe = true)
+public class WatchCycleMojo extends AbstractCycleMojo {
+
+    private static final String CLASS_FILE_EXTENSION = ".class";
+    private static final int MAX_IMPORT_ATTEMPTS = 5;
+
+    @Parameter(property = "project.build.outputDirectory")
+    private File classesDirectory;
+
+    @Parameter(property = "project.build.directory")
+    private File targetDirectory;
+
+    @Parameter(defaultValue = "200", property = "cycleWatchDebounce", required = false)
+    private long debounceMillis;
+
+    private final Map<WatchKey, Path> watchedDirectories = new HashMap<>();
+    private final NavigableMap<String, String> classNamesByPath = new TreeMap<>();
+
+    private static String getRelativePath(Path directory, Path path) {
+        return directory.relativize(path).toString().replace(File.separatorChar, '/');
+    }
+
+    private static String toString(Cycle cycle) {
+        return CycleBaseline.getKey(cycle);
+    }
+
+    @Override
+    public void execute() throws MojoExecutionException, MojoFailureException {
+        if (this.isSkipped()) {
+            return;
+        }
+
+        if (!this.classesDirectory.isDirectory()) {
+            throw new MojoExecutionException("Directory '" + this.classesDirectory.getAbsolutePath() + "' does not exist. Compile the project first.");
+        }
+
+        Path directory = this.classesDirectory.toPath().toAbsolutePath().normalize();
+        ForkJoinPool pool = this.createPool();
+        try (WatchService watchService = directory.getFileSystem().newWatchService()) {
+            // register before the import, so no change gets lost
+            this.register(watchService, directory, null);
+
+            ClassDependencyImporter classDependencyImporter = this.createImporter(pool);
+            CycleWatchSession session = new CycleWatchSession(this.createGranularity(), this.excludedPackages, this.createBudget(), this.loadBaseline(),
+                this.createDependencyKinds());
+            this.importAll(session, directory, classDependencyImporter, pool);
+
+            Set<Path> pendingPaths = new HashSet<>();
+            int failedImports = 0;
+            while (true) {
+                // a class file that could not be read, e.g. while the compiler was still writing it, is read again soon
+                boolean retry = failedImports > 0 && failedImports < MAX_IMPORT_ATTEMPTS;
+                boolean overflow = this.awaitChanges(watchService, pendingPaths, retry);
+                if (overflow) {
+                    this.getLog().info("Too many changes, importing all class files again.");
+                    this.importAll(session, directory, classDependencyImporter, pool);
+                    pendingPaths.clear();
+                    failedImports = 0;
+                    continue;
+                }
+
+                try {
+                    this.update(session, directory, pendingPaths, classDependencyImporter);
+                    pendingPaths.clear();
+                    failedImports = 0;
+                } catch (IOException e) {
+                    failedImports++;
+                    if (failedImports == MAX_IMPORT_ATTEMPTS) {
+                        this.getLog().warn("Failed to read the changed class files, waiting for further changes: " + e.getMessage());
+                    } else {
+                        this.getLog().debug("Failed to read the changed class files, trying again.", e);
+                    }
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (IOException e) {
+            throw new MojoExecutionException("Failed to watch the class files in " + directory, e);
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * Waits for the first change and collects further changes until none happened for the debounce time.
+     *
+     * @param retry <code>true</code> to return after the debounce time even without a change.
+     * @return <code>true</code> if changes were lost.
+     */
+    private boolean awaitChanges(WatchService watchService, Set<Path> changedPaths, boolean retry) throws InterruptedException, IOException {
+        boolean result = false;
+
+        WatchKey watchKey = retry ? null : watchService.take();
+        while (true) {
+            if (watchKey != null) {
+                result |= this.collectChanges(watchService, watchKey, changedPaths);
+            }
+
+            watchKey = watchService.poll(this.debounceMillis, TimeUnit.MILLISECONDS);
+            if (watchKey == null) {
+                return result;
+            }
+        }
+    }
+
+    private boolean collectChanges(WatchService watchService, WatchKey watchKey, Set<Path> changedPaths) throws IOException {
+        boolean result = false;
+        Path watchedDirectory = this.watchedDirectories.get(watchKey);
+
+        for (WatchEvent<?> eachEvent : watchKey.pollEvents()) {
+            if (eachEvent.kind() == OVERFLOW || watchedDirectory == null) {
+                result = true;
+                continue;
+            }
+
+            Path path = watchedDirectory.resolve((Path) eachEvent.context());
+            if (eachEvent.kind() == ENTRY_CREATE && Files.isDirectory(path, LinkOption.NOFOLLOW_LINKS)) {
+                // class files written before the new directory was registered do not cause events
+                this.register(watchService, path, changedPaths);
+            }
+            changedPaths.add(path);
+        }
+
+        if (!watchKey.reset()) {
+            this.watchedDirectories.remove(watchKey);
+        }
+
+        return result;
+    }
+
+    private void importAll(CycleWatchSession session, Path directory, ClassDependencyImporter classDependencyImporter, ForkJoinPool pool)
+            throws IOException {
+        long start = System.nanoTime();
+
+        DependencyCache dependencyCache = this.loadDependencyCache(this.targetDirectory, classDependencyImporter, pool);
+        dependencyCache.update(directory.toFile());
+        Map<String, ClassDependencies> classDependencies = dependencyCache.getClassDependenciesByPath();
+        this.saveDependencyCache(this.targetDirectory, dependencyCache);
+
+        this.classNamesByPath.clear();
+        for (Map.Entry<String, ClassDependencies> eachClassDependencies : classDependencies.entrySet()) {
+            this.classNamesByPath.put(eachClassDependencies.getKey(), eachClassDependencies.getValue().getClassName());
+        }
+        Set<String> removedClasses = new HashSet<>(session.getClassNames());
+        removedClasses.removeAll(this.classNamesByPath.values());
+        CycleWatchSession.Update update = session.update(classDependencies.values(), removedClasses);
+
+        for (Cycle eachCycle : session.getCycles()) {
+            this.getLog().warn("Package cycle: " + toString(eachCycle));
+        }
+        this.getLog().info(
+            "Analyzed " + classDependencies.size() + " classes in " + TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) + " ms, found "
+                + session.getCycles().size() + " package cycles in " + update.getComponentCount() + " strongly connected components.");
+        this.getLog().info("Watching " + directory + " for changes. Press Ctrl+C to stop.");
+    }
+
+    /**
+     * Watches the directory and all its sub directories.
+     *
+     * @param existingFiles Receives the files that already exist in the directories, may be <code>null</code>.
+     */
+    private void register(WatchService watchService, Path directory, Set<Path> existingFiles) throws IOException {
+        Files.walkFileTree(directory, new SimpleFileVisitor<>() {
+
+            @Override
+            public FileVisitResult preVisitDirectory(Path eachDirectory, BasicFileAttributes attributes) throws IOException {
+                WatchKey watchKey = eachDirectory.register(watchService, ENTRY_CREATE, ENTRY_MODIFY, ENTRY_DELETE);
+                WatchCycleMojo.this.watchedDirectories.put(watchKey, eachDirectory);
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult visitFile(Path file, BasicFileAttributes attributes) {
+                if (existingFiles != null) {
+                    existingFiles.add(file);
+                }
+                return FileVisitResult.CONTINUE;
+            }
+        });
+    }
+
+    /**
+     * Imports the changed class files and updates the session. Nothing is changed if a class file cannot be read.
+     */
+    private void update(CycleWatchSession session, Path directory, Set<Path> changedPaths, ClassDependencyImporter classDependencyImporter)
+            throws IOException {
+        long start = System.nanoTime();
+
+        List<File> changedClassFiles = new ArrayList<>();
+        Map<String, String> removedClassesByPath = new HashMap<>();
+        for (Path eachPath : changedPaths) {
+            if (Files.isRegularFile(eachPath)) {
+                if (eachPath.toString().endsWith(CLASS_FILE_EXTENSION)) {
+                    changedClassFiles.add(eachPath.toFile());
+                }
+            } else if (!Files.exists(eachPath)) {
+                // a deleted class file or a deleted package directory, the paths below it are sorted between '/' and '0'
+                String relativePath = getRelativePath(directory, eachPath);
+                String className = this.classNamesByPath.get(relativePath);
+                if (className != null) {
+                    removedClassesByPath.put(relativePath, className);
+                }
+                removedClassesByPath.putAll(this.classNamesByPath.subMap(relativePath + "/", relativePath + "0"));
+            }
+        }
+
+        if (changedClassFiles.isEmpty() && removedClassesByPath.isEmpty()) {
+            return;
+        }
+
+        Map<File, ClassDependencies> changedClasses = classDependencyImporter.importClassFiles(changedClassFiles);
+
+        Set<String> removedClasses = new HashSet<>(removedClassesByPath.values());
+        this.classNamesByPath.keySet().removeAll(removedClassesByPath.keySet());
+        for (Map.Entry<File, ClassDependencies> eachChangedClass : changedClasses.entrySet()) {
+            String className = eachChangedClass.getValue().getClassName();
+            String previousClassName = this.classNamesByPath.put(getRelativePath(directory, eachChangedClass.getKey().toPath()), className);
+            if (previousClassName != null && !previousClassName.equals(className)) {
+                removedClasses.add(previousClassName);
+            }
+        }
+        // a class file moved to another path within the same changes
+        for (ClassDependencies eachChangedClass : changedClasses.values()) {
+            removedClasses.remove(eachChangedClass.getClassName());
+        }
+
+        CycleWatchSession.Update update = session.update(changedClasses.values(), removedClasses);
+        for (Cycle eachNewCycle : update.getNewCycles()) {
+            this.getLog().warn("New package cycle: " + toString(eachNewCycle));
+        }
+        for (Cycle eachResolvedCycle : update.getResolvedCycles()) {
+            this.getLog().info("Resolved package cycle: " + toString(eachResolvedCycle));
+        }
+        this.getLog().info(
+            "Checked " + changedClassFiles.size() + " changed and " + removedClassesByPath.size() + " removed classes in "
+                + TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) + " ms: " + update.getChangedDependencies()
+                + " package dependencies changed, searched " + update.getRecomputedComponents() + " of " + update.getComponentCount()
+                + " strongly connected components, " + session.getCycles().size() + " package cycles.");
+    }
+}
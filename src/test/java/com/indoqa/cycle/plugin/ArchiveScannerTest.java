@@ -0,0 +1,134 @@
+/*
+ * Licensed to the Indoqa Software Design und Beratung GmbH (Indoqa) under
+ * one or more contributor license agreements. See the NOTICE file distributed
+ * with this work for additional information regarding copyright ownership.
+ * Indoqa licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.indoqa.cycle.plugin;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ForkJoinPool;
+import java.util.jar.JarFile;
+import java.util.zip.CRC32;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.tngtech.archunit.core.domain.JavaClass;
+import com.tngtech.archunit.core.importer.ClassFileImporter;
+
+public class ArchiveScannerTest {
+
+    private static final File CLASSES_DIRECTORY = new File("target/classes");
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private static Map<String, List<String>> getDependencies(List<ClassDependencies> classDependencies) {
+        Map<String, List<String>> result = new TreeMap<>();
+
+        for (ClassDependencies eachClassDependencies : classDependencies) {
+            result.put(eachClassDependencies.getClassName(), eachClassDependencies.getDependencies());
+        }
+
+        return result;
+    }
+
+    private static void putEntry(ZipOutputStream outputStream, String name, byte[] data, int method) throws IOException {
+        ZipEntry entry = new ZipEntry(name);
+        if (method == ZipEntry.STORED) {
+            CRC32 crc = new CRC32();
+            crc.update(data);
+            entry.setCrc(crc.getValue());
+            entry.setSize(data.length);
+        }
+
+        outputStream.putNextEntry(entry);
+        outputStream.write(data);
+        outputStream.closeEntry();
+    }
+
+    private static void write(File archive, int method, int resourceCount) throws IOException {
+        try (ZipOutputStream outputStream = new ZipOutputStream(new FileOutputStream(archive))) {
+            outputStream.setMethod(method);
+            for (int i = 0; i < resourceCount; i++) {
+                putEntry(outputStream, "resources/" + i + ".txt", new byte[0], method);
+            }
+
+            String directory = CLASSES_DIRECTORY.getAbsolutePath();
+            for (File eachClassFile : ClassFiles.find(CLASSES_DIRECTORY)) {
+                String name = eachClassFile.getAbsolutePath().substring(directory.length() + 1).replace(File.separatorChar, '/');
+                putEntry(outputStream, name, Files.readAllBytes(eachClassFile.toPath()), method);
+            }
+
+            // a versioned class file must be ignored
+            putEntry(outputStream, "META-INF/versions/11/com/indoqa/cycle/plugin/PackageGraph.class", new byte[0], method);
+        }
+    }
+
+    private void assertScan(int method, int resourceCount) throws IOException {
+        File archive = this.temporaryFolder.newFile("classes.jar");
+        write(archive, method, resourceCount);
+
+        List<ClassDependencies> classDependencies = ArchiveScanner.scan(archive, ForkJoinPool.commonPool());
+
+        TreeSet<String> expectedClassNames = new TreeSet<>();
+        try (JarFile jarFile = new JarFile(archive)) {
+            for (JavaClass eachJavaClass : new ClassFileImporter().importJar(jarFile)) {
+                expectedClassNames.add(eachJavaClass.getName());
+            }
+        }
+        assertEquals(expectedClassNames, getDependencies(classDependencies).keySet());
+
+        List<ClassDependencies> expectedClassDependencies = new ClassFileScanner().importClassFiles(ClassFiles.find(CLASSES_DIRECTORY))
+            .values()
+            .stream()
+            .toList();
+        assertEquals(getDependencies(expectedClassDependencies), getDependencies(classDependencies));
+
+        // the archive must not be locked after the scan
+        try (OutputStream outputStream = new FileOutputStream(archive)) {
+            outputStream.write(0);
+        }
+        Files.delete(archive.toPath());
+    }
+
+    @Test
+    public void scanDeflatedArchive() throws IOException {
+        this.assertScan(ZipEntry.DEFLATED, 0);
+    }
+
+    @Test
+    public void scanStoredArchive() throws IOException {
+        this.assertScan(ZipEntry.STORED, 0);
+    }
+
+    @Test
+    public void scanZip64Archive() throws IOException {
+        // more than 65535 entries require the ZIP64 end of central directory record
+        this.assertScan(ZipEntry.DEFLATED, 0x10000);
+    }
+}
@@ -0,0 +1,120 @@
+/*
+ * Licensed to the Indoqa Software Design und Beratung GmbH (Indoqa) under
+ * one or more contributor license agreements. See the NOTICE file distributed
+ * with this work for additional information regarding copyright ownership.
+ * Indoqa licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.indoqa.cycle.plugin;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * Reference implementations for the tests of the cycle algorithms on small graphs.
+ */
+final class BruteForceCycles {
+
+    private BruteForceCycles() {
+        // hide utility class constructor
+    }
+
+    /**
+     * @return All elementary cycles, each starting at its smallest node.
+     */
+    public static Set<List<Integer>> findAll(PackageGraph graph) {
+        Set<List<Integer>> result = new HashSet<>();
+
+        for (int start = 0; start < graph.getNodeCount(); start++) {
+            List<Integer> path = new ArrayList<>();
+            path.add(start);
+            extend(graph, start, path, result);
+        }
+
+        return result;
+    }
+
+    public static PackageGraph createGraph(Random random, int nodeCount, int edgeCount) {
+        PackageGraph.Builder builder = new PackageGraph.Builder();
+
+        for (int i = 0; i < nodeCount; i++) {
+            builder.addNode(getName(i));
+        }
+        for (int i = 0; i < edgeCount; i++) {
+            builder.addEdge(getName(random.nextInt(nodeCount)), getName(random.nextInt(nodeCount)));
+        }
+
+        return builder.build();
+    }
+
+    public static String getName(int node) {
+        return String.valueOf((char) ('a' + node));
+    }
+
+    /**
+     * @return The cycle rotated to start at its smallest node.
+     */
+    public static List<Integer> normalize(int[] cycle) {
+        int start = 0;
+        for (int i = 1; i < cycle.length; i++) {
+            if (cycle[i] < cycle[start]) {
+                start = i;
+            }
+        }
+
+        List<Integer> result = new ArrayList<>(cycle.length);
+        for (int i = 0; i < cycle.length; i++) {
+            result.add(cycle[(start + i) % cycle.length]);
+        }
+        return result;
+    }
+
+    public static boolean reaches(PackageGraph graph, int start, int end) {
+        boolean[] visited = new boolean[graph.getNodeCount()];
+        List<Integer> pending = new ArrayList<>(List.of(start));
+        visited[start] = true;
+
+        while (!pending.isEmpty()) {
+            int node = pending.remove(pending.size() - 1);
+            if (node == end) {
+                return true;
+            }
+
+            for (int edge = graph.getStart(node); edge < graph.getEnd(node); edge++) {
+                if (!visited[graph.getTarget(edge)]) {
+                    visited[graph.getTarget(edge)] = true;
+                    pending.add(graph.getTarget(edge));
+                }
+            }
+        }
+
+        return false;
+    }
+
+    private static void extend(PackageGraph graph, int start, List<Integer> path, Set<List<Integer>> cycles) {
+        int node = path.get(path.size() - 1);
+
+        for (int edge = graph.getStart(node); edge < graph.getEnd(node); edge++) {
+            int target = graph.getTarget(edge);
+            if (target == start) {
+                cycles.add(new ArrayList<>(path));
+            } else if (target > start && !path.contains(target)) {
+                path.add(target);
+                extend(graph, start, path, cycles);
+                path.remove(path.size() - 1);
+            }
+        }
+    }
+}
@@ -0,0 +1,106 @@
+/*
+ * Licensed to the Indoqa Software Design und Beratung GmbH (Indoqa) under
+ * one or more contributor license agreements. See the NOTICE file distributed
+ * with this work for additional information regarding copyright ownership.
+ * Indoqa licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.indoqa.cycle.plugin;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.net.URISyntaxException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.regex.Pattern;
+
+import org.junit.Test;
+
+public class ClassFileParserTest {
+
+    private static final File CLASSES_DIRECTORY = new File("target/classes");
+    private static final Set<String> PRIMITIVE_TYPES = Set.of("boolean", "byte", "char", "double", "float", "int", "long", "short", "void");
+    private static final String IDENTIFIER = "\\p{javaJavaIdentifierStart}\\p{javaJavaIdentifierPart}*";
+    private static final Pattern CLASS_NAME = Pattern.compile(IDENTIFIER + "(\\." + IDENTIFIER + ")*");
+
+    private static ClassDependencies scan(Class<?> type) throws IOException, URISyntaxException {
+        String classFileName = type.getName().substring(type.getPackageName().length() + 1) + ".class";
+        return ClassFileScanner.scan(new File(type.getResource(classFileName).toURI()));
+    }
+
+    @Test
+    public void classifiesNestedEnumOfAnnotationValue() throws IOException, URISyntaxException {
+        ClassDependencies annotated = scan(Annotated.class);
+        assertEquals(DependencyKind.ANNOTATION.getMask(), annotated.getKinds(Marker.class.getName()));
+        assertEquals(DependencyKind.ANNOTATION.getMask(), annotated.getKinds(Marker.Mode.class.getName()));
+
+        ClassDependencies modeUser = scan(ModeUser.class);
+        assertEquals(DependencyKind.CODE.getMask(), modeUser.getKinds(Marker.Mode.class.getName()));
+    }
+
+    @Test
+    public void findsDependenciesOfArchUnitImport() throws IOException {
+        List<File> classFiles = ClassFiles.find(CLASSES_DIRECTORY);
+        Map<File, ClassDependencies> expected = new ArchUnitImporter().importClassFiles(classFiles);
+        assertEquals(classFiles.size(), expected.size());
+
+        List<String> missingDependencies = new ArrayList<>();
+        for (Entry<File, ClassDependencies> eachEntry : expected.entrySet()) {
+            ClassDependencies classDependencies = ClassFileScanner.scan(eachEntry.getKey());
+            assertEquals(eachEntry.getValue().getClassName(), classDependencies.getClassName());
+
+            for (String eachDependency : classDependencies.getDependencies()) {
+                assertTrue(eachDependency, CLASS_NAME.matcher(eachDependency).matches());
+            }
+
+            Set<String> dependencies = new TreeSet<>(eachEntry.getValue().getDependencies());
+            dependencies.removeAll(PRIMITIVE_TYPES);
+            dependencies.removeAll(classDependencies.getDependencies());
+            for (String eachDependency : dependencies) {
+                missingDependencies.add(classDependencies.getClassName() + " -> " + eachDependency);
+            }
+        }
+
+        assertEquals(List.of(), missingDependencies);
+    }
+
+    @Retention(RetentionPolicy.RUNTIME)
+    private @interface Marker {
+
+        Mode value();
+
+        enum Mode {
+            A, B
+        }
+    }
+
+    @Marker(Marker.Mode.A)
+    private static class Annotated {
+        // only annotated
+    }
+
+    private static class ModeUser {
+
+        public boolean isMode(Object value) {
+            return value instanceof Marker.Mode;
+        }
+    }
+}
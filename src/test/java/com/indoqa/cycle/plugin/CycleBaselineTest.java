@@ -0,0 +1,82 @@
+/*
+ * Licensed to the Indoqa Software Design und Beratung GmbH (Indoqa) under
+ * one or more contributor license agreements. See the NOTICE file distributed
+ * with this work for additional information regarding copyright ownership.
+ * Indoqa licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.indoqa.cycle.plugin;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class CycleBaselineTest {
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private static Cycle cycle(String... packages) {
+        Cycle result = new Cycle();
+        for (String eachPackage : packages) {
+            result.addInvolvedPackage(eachPackage);
+        }
+        return result;
+    }
+
+    @Test
+    public void keyIgnoresRotation() {
+        assertEquals("a -> b -> c -> a", CycleBaseline.getKey(cycle("b", "c", "a", "b")));
+        assertEquals("a -> b -> c -> a", CycleBaseline.getKey(cycle("c", "a", "b", "c")));
+        assertFalse(CycleBaseline.getKey(cycle("a", "c", "b", "a")).equals(CycleBaseline.getKey(cycle("a", "b", "c", "a"))));
+    }
+
+    @Test
+    public void load() throws IOException {
+        Path baselineFile = this.temporaryFolder.newFile().toPath();
+        Files.write(baselineFile, List.of("# comment", "", " b -> a -> b ", "x -> y -> x"), StandardCharsets.UTF_8);
+
+        CycleBaseline baseline = CycleBaseline.load(baselineFile);
+        assertEquals(2, baseline.getCycleCount());
+        assertFalse(baseline.isRecording());
+        assertTrue(baseline.isAccepted(cycle("a", "b", "a")));
+        assertFalse(baseline.isAccepted(cycle("a", "c", "a")));
+        assertEquals(1, baseline.getMatchedCount());
+        assertEquals(Set.of("x -> y -> x"), baseline.getResolvedCycles());
+    }
+
+    @Test
+    public void recordAndWrite() throws IOException {
+        CycleBaseline baseline = CycleBaseline.record();
+        assertTrue(baseline.isAccepted(cycle("c", "d", "c")));
+        assertTrue(baseline.isAccepted(cycle("b", "a", "b")));
+
+        Path baselineFile = this.temporaryFolder.getRoot().toPath().resolve("baseline/cycles.baseline");
+        baseline.write(baselineFile);
+
+        CycleBaseline loadedBaseline = CycleBaseline.load(baselineFile);
+        assertEquals(List.of("a -> b -> a", "c -> d -> c"), Files.readAllLines(baselineFile).subList(1, 3));
+        assertEquals(baseline.getDigest(), loadedBaseline.getDigest());
+        assertTrue(loadedBaseline.getResolvedCycles().containsAll(Set.of("a -> b -> a", "c -> d -> c")));
+    }
+}
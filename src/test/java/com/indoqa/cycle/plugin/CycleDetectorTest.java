@@ -0,0 +1,109 @@
+/*
+ * Licensed to the Indoqa Software Design und Beratung GmbH (Indoqa) under
+ * one or more contributor license agreements. See the NOTICE file distributed
+ * with this work for additional information regarding copyright ownership.
+ * Indoqa licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.indoqa.cycle.plugin;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class CycleDetectorTest {
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private static ClassDependencies classDependencies(String className, String... dependencies) {
+        return new ClassDependencies(className, Arrays.asList(dependencies));
+    }
+
+    private static List<String> findCycles(CycleDetector cycleDetector, CycleBudget budget) throws IOException {
+        List<String> result = new ArrayList<>();
+        cycleDetector.findPackageCycles(budget, new CycleMetrics(), (cycle, detector) -> result.add(CycleBaseline.getKey(cycle)));
+        return result;
+    }
+
+    @Test
+    public void failFastFindsCycleBehindAcceptedCycle() throws IOException {
+        CycleDetector cycleDetector = new CycleDetector(
+            List.of(classDependencies("a.A", "b.B", "c.C"), classDependencies("b.B", "a.A"), classDependencies("c.C", "a.A")),
+            null);
+        cycleDetector.setBaseline(this.createBaseline("a -> b -> a"));
+
+        for (CycleStrategy eachStrategy : CycleStrategy.values()) {
+            CycleBudget budget = new CycleBudget(eachStrategy, true, 0, 1, 0);
+            assertEquals(eachStrategy.getName(), List.of("a -> c -> a"), findCycles(cycleDetector, budget));
+        }
+    }
+
+    @Test
+    public void limitOnlyCountsNewCycles() throws IOException {
+        List<ClassDependencies> classDependencies = new ArrayList<>();
+        classDependencies.add(classDependencies("a.A", "b.X", "c.X", "d.X", "e.X"));
+        for (String eachPackage : List.of("b", "c", "d", "e")) {
+            classDependencies.add(classDependencies(eachPackage + ".X", "a.A"));
+        }
+        CycleDetector cycleDetector = new CycleDetector(classDependencies, null);
+        cycleDetector.setBaseline(this.createBaseline("a -> b -> a", "a -> c -> a", "a -> d -> a"));
+
+        CycleBudget budget = new CycleBudget(CycleStrategy.ALL, false, 0, 1, 0);
+        assertEquals(List.of("a -> e -> a"), findCycles(cycleDetector, budget));
+    }
+
+    @Test
+    public void acceptedComponentIsComplete() throws IOException {
+        CycleDetector cycleDetector = new CycleDetector(List.of(classDependencies("a.A", "b.B"), classDependencies("b.B", "a.A")), null);
+        CycleBaseline baseline = this.createBaseline("b -> a -> b");
+        cycleDetector.setBaseline(baseline);
+
+        CycleSearchResult searchResult = cycleDetector.findPackageCycles(new CycleBudget(CycleStrategy.ALL, true, 0, 1, 0), new CycleMetrics(),
+            (cycle, detector) -> {
+                throw new AssertionError("Accepted cycle reported: " + cycle);
+            });
+        assertTrue(searchResult.isComplete());
+        assertEquals(1, baseline.getMatchedCount());
+    }
+
+    @Test
+    public void mappedClassConnectionsAreDeletedOnClose() throws IOException {
+        Path directory = this.temporaryFolder.newFolder().toPath();
+        MappedClassConnectionIndex classConnectionIndex = new MappedClassConnectionIndex(directory);
+        CycleDetector cycleDetector = new CycleDetector(List.of(classDependencies("a.A", "b.B"), classDependencies("b.B", "a.A")), null,
+            Granularity.PACKAGE, classConnectionIndex);
+
+        assertEquals(List.of(new Connection<>("a.A", "b.B")), cycleDetector.getClassConnections("a", "b"));
+        assertEquals(2, directory.toFile().list().length);
+
+        classConnectionIndex.close();
+        assertEquals(0, directory.toFile().list().length);
+    }
+
+    private CycleBaseline createBaseline(String... cycles) throws IOException {
+        Path baselineFile = this.temporaryFolder.newFile().toPath();
+        Files.write(baselineFile, Arrays.asList(cycles), StandardCharsets.UTF_8);
+        return CycleBaseline.load(baselineFile);
+    }
+}
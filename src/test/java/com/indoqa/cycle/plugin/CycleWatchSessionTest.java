@@ -0,0 +1,169 @@
+/*
+ * Licensed to the Indoqa Software Design und Beratung GmbH (Indoqa) under
+ * one or more contributor license agreements. See the NOTICE file distributed
+ * with this work for additional information regarding copyright ownership.
+ * Indoqa licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.indoqa.cycle.plugin;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class CycleWatchSessionTest {
+
+    private static final CycleBudget ALL_CYCLES = new CycleBudget(CycleStrategy.ALL, false, 0, Integer.MAX_VALUE, 0);
+    private static final List<String> CLASS_NAMES = List.of("a.X", "a.Y", "b.X", "b.Y", "c.X", "c.Y", "d.X", "e.X", "e.f.X");
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private static ClassDependencies createClass(Random random, String className) {
+        Map<String, Integer> dependencyKinds = new HashMap<>();
+
+        for (int i = random.nextInt(4); i > 0; i--) {
+            int kind = DependencyKind.values()[random.nextInt(DependencyKind.values().length)].getMask();
+            dependencyKinds.merge(CLASS_NAMES.get(random.nextInt(CLASS_NAMES.size())), kind, (kinds, otherKinds) -> kinds | otherKinds);
+        }
+        if (random.nextBoolean()) {
+            dependencyKinds.put("java.lang.String", DependencyKind.FIELD.getMask());
+        }
+
+        return new ClassDependencies(className, dependencyKinds);
+    }
+
+    private static Set<String> getKeys(Collection<Cycle> cycles) {
+        Set<String> result = new TreeSet<>();
+
+        for (Cycle eachCycle : cycles) {
+            result.add(CycleBaseline.getKey(eachCycle));
+        }
+
+        return result;
+    }
+
+    private static Set<String> findCycles(Collection<ClassDependencies> classes, Granularity granularity, String[] excludedPackages,
+            CycleBaseline baseline, int dependencyKinds) throws IOException {
+        CycleDetector cycleDetector = new CycleDetector(classes, excludedPackages, granularity);
+        if (dependencyKinds != DependencyKind.ALL) {
+            cycleDetector = cycleDetector.filter(dependencyKinds);
+        }
+        cycleDetector.setBaseline(baseline);
+
+        List<Cycle> result = new ArrayList<>();
+        cycleDetector.findPackageCycles(ALL_CYCLES, new CycleMetrics(), (cycle, reportingCycleDetector) -> result.add(cycle));
+        return getKeys(result);
+    }
+
+    private void assertIncrementalUpdates(Granularity granularity, String[] excludedPackages, int dependencyKinds, boolean withBaseline)
+            throws IOException {
+        Random random = new Random(23);
+
+        CycleBaseline baseline = null;
+        if (withBaseline) {
+            Path baselineFile = this.temporaryFolder.newFile().toPath();
+            Files.write(baselineFile, List.of("a -> b -> a", "b -> c -> b"), StandardCharsets.UTF_8);
+            baseline = CycleBaseline.load(baselineFile);
+        }
+
+        for (int i = 0; i < 50; i++) {
+            CycleWatchSession session = new CycleWatchSession(granularity, excludedPackages, ALL_CYCLES, baseline, dependencyKinds);
+            Map<String, ClassDependencies> classes = new HashMap<>();
+            Set<String> cycles = new TreeSet<>();
+
+            for (int j = 0; j < 30; j++) {
+                Map<String, ClassDependencies> changedClasses = new HashMap<>();
+                Set<String> removedClasses = new HashSet<>();
+                for (int k = random.nextInt(4); k >= 0; k--) {
+                    String className = CLASS_NAMES.get(random.nextInt(CLASS_NAMES.size()));
+                    if (random.nextInt(4) == 0) {
+                        removedClasses.add(className);
+                        changedClasses.remove(className);
+                    } else {
+                        changedClasses.put(className, createClass(random, className));
+                        removedClasses.remove(className);
+                    }
+                }
+                classes.keySet().removeAll(removedClasses);
+                classes.putAll(changedClasses);
+
+                CycleWatchSession.Update update = session.update(changedClasses.values(), removedClasses);
+
+                Set<String> expectedCycles = findCycles(classes.values(), granularity, excludedPackages, baseline, dependencyKinds);
+                assertEquals(expectedCycles, getKeys(session.getCycles()));
+
+                Set<String> newCycles = new TreeSet<>(expectedCycles);
+                newCycles.removeAll(cycles);
+                Set<String> resolvedCycles = new TreeSet<>(cycles);
+                resolvedCycles.removeAll(expectedCycles);
+                assertEquals(newCycles, getKeys(update.getNewCycles()));
+                assertEquals(resolvedCycles, getKeys(update.getResolvedCycles()));
+                cycles = expectedCycles;
+            }
+        }
+    }
+
+    @Test
+    public void searchOnlyAffectedComponents() {
+        CycleWatchSession session = new CycleWatchSession(Granularity.PACKAGE, null, CycleBudget.DEFAULT, null);
+        session.update(
+            List.of(
+                new ClassDependencies("a.X", List.of("b.X")),
+                new ClassDependencies("b.X", List.of("a.X")),
+                new ClassDependencies("c.X", List.of("d.X")),
+                new ClassDependencies("d.X", List.of("c.X"))),
+            Set.of());
+
+        CycleWatchSession.Update update = session.update(List.of(new ClassDependencies("a.Y", List.of("b.X"))), Set.of());
+        assertEquals(0, update.getRecomputedComponents());
+        assertEquals(2, update.getComponentCount());
+
+        update = session.update(List.of(new ClassDependencies("c.Y", List.of("e.X")), new ClassDependencies("e.X", List.of("c.X"))), Set.of());
+        assertEquals(1, update.getRecomputedComponents());
+        assertEquals(2, update.getComponentCount());
+        assertEquals(Set.of("c -> e -> c"), getKeys(update.getNewCycles()));
+
+        update = session.update(List.of(), Set.of("b.X"));
+        assertEquals(Set.of("a -> b -> a"), getKeys(update.getResolvedCycles()));
+        assertEquals(Set.of("c -> d -> c", "c -> e -> c"), getKeys(session.getCycles()));
+    }
+
+    @Test
+    public void updateLikeFullAnalysis() throws IOException {
+        this.assertIncrementalUpdates(Granularity.PACKAGE, null, DependencyKind.ALL, false);
+    }
+
+    @Test
+    public void updateLikeFullAnalysisWithBaseline() throws IOException {
+        this.assertIncrementalUpdates(Granularity.PACKAGE, null, DependencyKind.ALL, true);
+    }
+
+    @Test
+    public void updateLikeFullAnalysisWithClassGranularity() throws IOException {
+        this.assertIncrementalUpdates(Granularity.CLASS, null, DependencyKind.ALL, false);
+    }
+
+    @Test
+    public void updateLikeFullAnalysisWithFilters() throws IOException {
+        int dependencyKinds = DependencyKind.INHERITANCE.getMask() | DependencyKind.FIELD.getMask() | DependencyKind.SIGNATURE.getMask();
+        this.assertIncrementalUpdates(Granularity.PACKAGE, new String[] {"e.**"}, dependencyKinds, false);
+    }
+}
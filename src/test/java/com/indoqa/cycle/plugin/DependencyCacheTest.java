@@ -0,0 +1,70 @@
+/*
+ * Licensed to the Indoqa Software Design und Beratung GmbH (Indoqa) under
+ * one or more contributor license agreements. See the NOTICE file distributed
+ * with this work for additional information regarding copyright ownership.
+ * Indoqa licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.indoqa.cycle.plugin;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class DependencyCacheTest {
+
+    private static final File CLASSES_DIRECTORY = new File("target/classes/com/indoqa/cycle/plugin");
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private static File copyClassFile(File directory, String fileName) throws IOException {
+        Files.copy(new File(CLASSES_DIRECTORY, fileName).toPath(), new File(directory, fileName).toPath());
+        return directory;
+    }
+
+    @Test
+    public void updateOfFirstRootKeepsFurtherRoots() throws IOException {
+        File mainDirectory = copyClassFile(this.temporaryFolder.newFolder(), "Cycle.class");
+        File testDirectory = copyClassFile(this.temporaryFolder.newFolder(), "Connection.class");
+        File cacheFile = new File(this.temporaryFolder.getRoot(), "dependency-cache.bin");
+        ClassFileScanner importer = new ClassFileScanner();
+        ForkJoinPool pool = ForkJoinPool.commonPool();
+
+        DependencyCache dependencyCache = DependencyCache.load(cacheFile, importer, pool);
+        dependencyCache.update(List.of(mainDirectory, testDirectory));
+        assertEquals(2, dependencyCache.getImportedCount());
+        dependencyCache.save(cacheFile);
+
+        // e.g. the reactor analysis, which only updates the main classes of each module
+        dependencyCache = DependencyCache.load(cacheFile, importer, pool);
+        assertEquals(1, dependencyCache.update(mainDirectory).size());
+        assertEquals(0, dependencyCache.getImportedCount());
+        assertEquals(1, dependencyCache.getCachedCount());
+        dependencyCache.save(cacheFile);
+
+        dependencyCache = DependencyCache.load(cacheFile, importer, pool);
+        dependencyCache.update(List.of(mainDirectory, testDirectory));
+        assertEquals(0, dependencyCache.getImportedCount());
+        assertEquals(2, dependencyCache.getCachedCount());
+        assertFalse(dependencyCache.isModified());
+    }
+}
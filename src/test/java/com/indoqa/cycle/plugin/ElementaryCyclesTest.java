@@ -0,0 +1,129 @@
+/*
+ * Licensed to the Indoqa Software Design und Beratung GmbH (Indoqa) under
+ * one or more contributor license agreements. See the NOTICE file distributed
+ * with this work for additional information regarding copyright ownership.
+ * Indoqa licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.indoqa.cycle.plugin;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.Test;
+
+public class ElementaryCyclesTest {
+
+    private static Set<List<Integer>> getCycles(Set<List<Integer>> cycles, int[] component, int maxLength) {
+        Set<List<Integer>> result = new HashSet<>();
+
+        for (List<Integer> eachCycle : cycles) {
+            if (eachCycle.size() <= maxLength && contains(component, eachCycle.get(0))) {
+                result.add(eachCycle);
+            }
+        }
+
+        return result;
+    }
+
+    private static boolean contains(int[] component, int node) {
+        for (int eachNode : component) {
+            if (eachNode == node) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    private static Set<List<Integer>> normalize(List<int[]> cycles) {
+        Set<List<Integer>> result = new HashSet<>();
+
+        for (int[] eachCycle : cycles) {
+            assertTrue(result.add(BruteForceCycles.normalize(eachCycle)));
+        }
+
+        return result;
+    }
+
+    @Test
+    public void findsAllElementaryCycles() {
+        Random random = new Random(3);
+
+        for (int i = 0; i < 500; i++) {
+            PackageGraph graph = BruteForceCycles.createGraph(random, 2 + random.nextInt(7), random.nextInt(20));
+            Set<List<Integer>> allCycles = BruteForceCycles.findAll(graph);
+            int maxLength = i % 3 == 0 ? 3 : Integer.MAX_VALUE;
+
+            ElementaryCycles elementaryCycles = new ElementaryCycles(graph);
+            Set<List<Integer>> foundCycles = new HashSet<>();
+            for (int[] eachComponent : StronglyConnectedComponents.find(graph)) {
+                Set<List<Integer>> cycles = normalize(elementaryCycles.find(eachComponent, Integer.MAX_VALUE, maxLength, 0));
+                assertEquals(getCycles(allCycles, eachComponent, maxLength), cycles);
+                foundCycles.addAll(cycles);
+            }
+
+            if (maxLength == Integer.MAX_VALUE) {
+                assertEquals(allCycles, foundCycles);
+            }
+        }
+    }
+
+    @Test
+    public void stopsAtMaxCycles() {
+        Random random = new Random(7);
+
+        for (int i = 0; i < 200; i++) {
+            PackageGraph graph = BruteForceCycles.createGraph(random, 2 + random.nextInt(7), random.nextInt(20));
+            Set<List<Integer>> allCycles = BruteForceCycles.findAll(graph);
+
+            ElementaryCycles elementaryCycles = new ElementaryCycles(graph);
+            for (int[] eachComponent : StronglyConnectedComponents.find(graph)) {
+                Set<List<Integer>> expectedCycles = getCycles(allCycles, eachComponent, Integer.MAX_VALUE);
+                Set<List<Integer>> cycles = normalize(elementaryCycles.find(eachComponent, 2));
+
+                assertEquals(Math.min(2, expectedCycles.size()), cycles.size());
+                assertTrue(expectedCycles.containsAll(cycles));
+            }
+        }
+    }
+
+    @Test
+    public void stopsAfterEnumeratingTooManyAcceptedCycles() {
+        PackageGraph.Builder builder = new PackageGraph.Builder();
+        for (int i = 0; i < 7; i++) {
+            for (int j = 0; j < 7; j++) {
+                if (i != j) {
+                    builder.addEdge(BruteForceCycles.getName(i), BruteForceCycles.getName(j));
+                }
+            }
+        }
+        PackageGraph graph = builder.build();
+
+        ElementaryCycles elementaryCycles = new ElementaryCycles(graph);
+        int[] component = StronglyConnectedComponents.find(graph).get(0);
+        // the 1956 cycles through the first node are enumerated first, the other 409 cycles afterwards
+        int firstNode = graph.getId(BruteForceCycles.getName(0));
+        AcceptedCycles acceptedCycles = cycle -> contains(cycle, firstNode);
+
+        assertEquals(List.of(), elementaryCycles.find(component, 1, Integer.MAX_VALUE, 0, acceptedCycles));
+        assertTrue(elementaryCycles.isCycleLimitReached());
+        assertEquals(409, elementaryCycles.find(component, 1000, Integer.MAX_VALUE, 0, acceptedCycles).size());
+        assertFalse(elementaryCycles.isCycleLimitReached());
+    }
+}
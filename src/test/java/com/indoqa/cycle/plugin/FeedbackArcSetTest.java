@@ -0,0 +1,186 @@
+/*
+ * Licensed to the Indoqa Software Design und Beratung GmbH (Indoqa) under
+ * one or more contributor license agreements. See the NOTICE file distributed
+ * with this work for additional information regarding copyright ownership.
+ * Indoqa licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.indoqa.cycle.plugin;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+import java.util.stream.IntStream;
+
+import org.junit.Test;
+
+public class FeedbackArcSetTest {
+
+    private static PackageGraph createWeightedGraph(Random random, int nodeCount, int edgeCount) {
+        PackageGraph.Builder builder = new PackageGraph.Builder();
+
+        for (int i = 0; i < nodeCount; i++) {
+            builder.addNode(BruteForceCycles.getName(i));
+        }
+        for (int i = 0; i < edgeCount; i++) {
+            String source = BruteForceCycles.getName(random.nextInt(nodeCount));
+            String target = BruteForceCycles.getName(random.nextInt(nodeCount));
+            for (int j = random.nextInt(3); j >= 0; j--) {
+                builder.addEdge(source, target);
+            }
+        }
+
+        return builder.build();
+    }
+
+    private static int getWeight(PackageGraph graph, Iterable<Integer> edges) {
+        int result = 0;
+
+        for (int eachEdge : edges) {
+            result += graph.getWeight(eachEdge);
+        }
+
+        return result;
+    }
+
+    /**
+     * @return <code>true</code> if the edges of the component without the removed edges do not form a cycle.
+     */
+    private static boolean isAcyclic(PackageGraph graph, int[] component, Set<Integer> removedEdges) {
+        Set<Integer> nodes = new HashSet<>();
+        for (int eachNode : component) {
+            nodes.add(eachNode);
+        }
+
+        // Kahn's algorithm on the remaining edges
+        int[] inDegrees = new int[graph.getNodeCount()];
+        for (int eachNode : component) {
+            for (int edge = graph.getStart(eachNode); edge < graph.getEnd(eachNode); edge++) {
+                if (nodes.contains(graph.getTarget(edge)) && !removedEdges.contains(edge)) {
+                    inDegrees[graph.getTarget(edge)]++;
+                }
+            }
+        }
+
+        int[] pending = Arrays.stream(component).filter(node -> inDegrees[node] == 0).toArray();
+        int pendingCount = pending.length;
+        pending = Arrays.copyOf(pending, component.length);
+        int visited = 0;
+        while (pendingCount > 0) {
+            int node = pending[--pendingCount];
+            visited++;
+            for (int edge = graph.getStart(node); edge < graph.getEnd(node); edge++) {
+                int target = graph.getTarget(edge);
+                if (nodes.contains(target) && !removedEdges.contains(edge) && --inDegrees[target] == 0) {
+                    pending[pendingCount++] = target;
+                }
+            }
+        }
+
+        return visited == component.length;
+    }
+
+    private static int findMinimumWeight(PackageGraph graph, int[] component, int[] edges) {
+        int result = Integer.MAX_VALUE;
+
+        for (int subset = 0; subset < 1 << edges.length; subset++) {
+            Set<Integer> removedEdges = new HashSet<>();
+            for (int i = 0; i < edges.length; i++) {
+                if ((subset & 1 << i) != 0) {
+                    removedEdges.add(edges[i]);
+                }
+            }
+
+            if (isAcyclic(graph, component, removedEdges)) {
+                result = Math.min(result, getWeight(graph, removedEdges));
+            }
+        }
+
+        return result;
+    }
+
+    private static int[] getEdges(PackageGraph graph, int[] component) {
+        Set<Integer> nodes = new HashSet<>();
+        for (int eachNode : component) {
+            nodes.add(eachNode);
+        }
+
+        return Arrays.stream(component)
+            .flatMap(node -> IntStream.range(graph.getStart(node), graph.getEnd(node)))
+            .filter(edge -> nodes.contains(graph.getTarget(edge)))
+            .toArray();
+    }
+
+    @Test
+    public void cutLightDependency() {
+        PackageGraph.Builder builder = new PackageGraph.Builder();
+        builder.addEdge("a", "b");
+        builder.addEdge("a", "b");
+        builder.addEdge("a", "b");
+        builder.addEdge("b", "a");
+        PackageGraph graph = builder.build();
+
+        int[] cut = new FeedbackArcSet(graph).find(new int[] {graph.getId("a"), graph.getId("b")});
+
+        assertArrayEquals(new int[] {graph.getStart(graph.getId("b"))}, cut);
+    }
+
+    @Test
+    public void cutMakesComponentAcyclic() {
+        Random random = new Random(13);
+        int componentCount = 0;
+        int minimumCount = 0;
+
+        for (int i = 0; i < 500; i++) {
+            PackageGraph graph = createWeightedGraph(random, 2 + random.nextInt(6), random.nextInt(12));
+
+            FeedbackArcSet feedbackArcSet = new FeedbackArcSet(graph);
+            for (int[] eachComponent : StronglyConnectedComponents.find(graph)) {
+                if (eachComponent.length < 2) {
+                    continue;
+                }
+
+                int[] cut = feedbackArcSet.find(eachComponent);
+                Set<Integer> cutEdges = new HashSet<>();
+                for (int j = 0; j < cut.length; j++) {
+                    assertTrue(cutEdges.add(cut[j]));
+                    assertTrue(j == 0 || graph.getWeight(cut[j - 1]) >= graph.getWeight(cut[j]));
+                }
+                assertTrue(isAcyclic(graph, eachComponent, cutEdges));
+
+                // every dependency of the cut is needed
+                for (int eachEdge : cut) {
+                    Set<Integer> otherEdges = new HashSet<>(cutEdges);
+                    otherEdges.remove(eachEdge);
+                    assertFalse(isAcyclic(graph, eachComponent, otherEdges));
+                }
+
+                int[] edges = getEdges(graph, eachComponent);
+                int minimumWeight = findMinimumWeight(graph, eachComponent, edges);
+                int weight = getWeight(graph, cutEdges);
+                assertTrue(weight >= minimumWeight);
+                componentCount++;
+                if (weight == minimumWeight) {
+                    minimumCount++;
+                }
+            }
+        }
+
+        // the heuristic finds the minimum for most small components
+        assertTrue(minimumCount + " of " + componentCount, minimumCount * 10 >= componentCount * 9);
+    }
+}
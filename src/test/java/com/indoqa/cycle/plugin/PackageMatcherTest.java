@@ -0,0 +1,125 @@
+/*
+ * Licensed to the Indoqa Software Design und Beratung GmbH (Indoqa) under
+ * one or more contributor license agreements. See the NOTICE file distributed
+ * with this work for additional information regarding copyright ownership.
+ * Indoqa licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.indoqa.cycle.plugin;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.regex.Pattern;
+
+import org.junit.Test;
+
+public class PackageMatcherTest {
+
+    private static final String[] SEGMENTS = {"a", "b", "c"};
+
+    private static String createPackageName(Random random) {
+        List<String> segments = new ArrayList<>();
+
+        for (int i = random.nextInt(5); i > 0; i--) {
+            segments.add(SEGMENTS[random.nextInt(SEGMENTS.length)]);
+        }
+
+        return String.join(".", segments);
+    }
+
+    private static String createPattern(Random random) {
+        List<String> segments = new ArrayList<>();
+
+        for (int i = random.nextInt(4); i >= 0; i--) {
+            segments.add(random.nextInt(4) == 0 ? "*" : SEGMENTS[random.nextInt(SEGMENTS.length)]);
+        }
+        if (random.nextBoolean()) {
+            segments.set(segments.size() - 1, "**");
+        }
+
+        return String.join(".", segments);
+    }
+
+    private static Pattern toRegex(String pattern) {
+        if (pattern.equals("**")) {
+            return Pattern.compile(".*");
+        }
+
+        StringBuilder result = new StringBuilder();
+        for (String eachSegment : pattern.split("\\.")) {
+            if (eachSegment.equals("**")) {
+                result.append("(\\..*)?");
+                continue;
+            }
+
+            if (result.length() > 0) {
+                result.append("\\.");
+            }
+            result.append(eachSegment.equals("*") ? "[^.]+" : Pattern.quote(eachSegment));
+        }
+
+        return Pattern.compile(result.toString());
+    }
+
+    @Test
+    public void matchLikeRegularExpressions() {
+        Random random = new Random(11);
+
+        for (int i = 0; i < 2000; i++) {
+            String[] patterns = new String[1 + random.nextInt(3)];
+            List<Pattern> regexes = new ArrayList<>();
+            for (int j = 0; j < patterns.length; j++) {
+                patterns[j] = createPattern(random);
+                regexes.add(toRegex(patterns[j]));
+            }
+
+            PackageMatcher packageMatcher = PackageMatcher.compile(patterns);
+            for (int j = 0; j < 20; j++) {
+                String packageName = createPackageName(random);
+                boolean expected = regexes.stream().anyMatch(regex -> regex.matcher(packageName).matches());
+                assertEquals(String.join(",", patterns) + " " + packageName, expected, packageMatcher.matches(packageName));
+            }
+        }
+    }
+
+    @Test
+    public void matchPatternsOfReadme() {
+        PackageMatcher packageMatcher = PackageMatcher.compile(" com.foo.* ", "com.*.generated", "com.bar.generated.**");
+
+        assertTrue(packageMatcher.matches("com.foo.x"));
+        assertFalse(packageMatcher.matches("com.foo"));
+        assertFalse(packageMatcher.matches("com.foo.x.y"));
+        assertTrue(packageMatcher.matches("com.x.generated"));
+        assertFalse(packageMatcher.matches("com.generated"));
+        assertTrue(packageMatcher.matches("com.bar.generated"));
+        assertTrue(packageMatcher.matches("com.bar.generated.x.y"));
+        assertFalse(packageMatcher.matches("com.bar.generatedx"));
+    }
+
+    @Test
+    public void matchNothingWithoutPatterns() {
+        assertTrue(PackageMatcher.compile().isEmpty());
+        assertTrue(PackageMatcher.compile((String[]) null).isEmpty());
+        assertTrue(PackageMatcher.compile("").isEmpty());
+        assertFalse(PackageMatcher.compile("").matches(""));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectAnySubpackageInTheMiddle() {
+        PackageMatcher.compile("com.**.generated");
+    }
+}
@@ -0,0 +1,120 @@
+/*
+ * Licensed to the Indoqa Software Design und Beratung GmbH (Indoqa) under
+ * one or more contributor license agreements. See the NOTICE file distributed
+ * with this work for additional information regarding copyright ownership.
+ * Indoqa licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.indoqa.cycle.plugin;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.Test;
+
+public class RedundantCyclesTest {
+
+    private static Cycle createCycle(String... packages) {
+        Cycle result = new Cycle();
+
+        for (String eachPackage : packages) {
+            result.addInvolvedPackage(eachPackage);
+        }
+        result.addInvolvedPackage(packages[0]);
+
+        return result;
+    }
+
+    private static Cycle createRandomCycle(Random random) {
+        List<String> packages = new ArrayList<>(List.of("a", "b", "c", "d", "e", "f", "g"));
+        String[] loop = new String[2 + random.nextInt(4)];
+
+        for (int i = 0; i < loop.length; i++) {
+            loop[i] = packages.remove(random.nextInt(packages.size()));
+        }
+
+        return createCycle(loop);
+    }
+
+    /**
+     * A cycle is redundant if another cycle has a subset of its packages, of two cycles with the same packages the
+     * smaller string is kept.
+     */
+    private static Set<Cycle> removeBruteForce(List<Cycle> cycles) {
+        Set<Cycle> normalizedCycles = new LinkedHashSet<>();
+        for (Cycle eachCycle : cycles) {
+            normalizedCycles.add(eachCycle.normalize());
+        }
+
+        Set<Cycle> result = new HashSet<>();
+        for (Cycle eachCycle : normalizedCycles) {
+            Set<String> packages = new HashSet<>(eachCycle.getLoop());
+
+            boolean redundant = false;
+            for (Cycle eachOtherCycle : normalizedCycles) {
+                Set<String> otherPackages = new HashSet<>(eachOtherCycle.getLoop());
+                if (!eachOtherCycle.equals(eachCycle) && packages.containsAll(otherPackages)
+                    && (otherPackages.size() < packages.size() || eachOtherCycle.toString().compareTo(eachCycle.toString()) < 0)) {
+                    redundant = true;
+                }
+            }
+
+            if (!redundant) {
+                result.add(eachCycle);
+            }
+        }
+
+        return result;
+    }
+
+    @Test
+    public void removeDuplicatesAndSupersets() {
+        List<Cycle> cycles = List.of(
+            createCycle("b", "c", "a"),
+            createCycle("a", "b", "c"),
+            createCycle("a", "b"),
+            createCycle("c", "d"),
+            createCycle("a", "b", "c", "d"),
+            createCycle("d", "e", "f"));
+
+        List<Cycle> result = RedundantCycles.remove(cycles);
+
+        assertEquals(List.of(createCycle("d", "e", "f"), createCycle("a", "b"), createCycle("c", "d")), result);
+    }
+
+    @Test
+    public void removeLikeBruteForce() {
+        Random random = new Random(7);
+
+        for (int i = 0; i < 1000; i++) {
+            List<Cycle> cycles = new ArrayList<>();
+            for (int j = random.nextInt(12); j >= 0; j--) {
+                cycles.add(createRandomCycle(random));
+            }
+
+            List<Cycle> result = RedundantCycles.remove(cycles);
+
+            assertEquals(removeBruteForce(cycles), new HashSet<>(result));
+            assertEquals(result.size(), new HashSet<>(result).size());
+            for (int j = 1; j < result.size(); j++) {
+                assertTrue(result.get(j - 1).getLength() >= result.get(j).getLength());
+            }
+        }
+    }
+}
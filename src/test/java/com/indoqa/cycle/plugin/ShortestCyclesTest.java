@@ -0,0 +1,188 @@
+/*
+ * Licensed to the Indoqa Software Design und Beratung GmbH (Indoqa) under
+ * one or more contributor license agreements. See the NOTICE file distributed
+ * with this work for additional information regarding copyright ownership.
+ * Indoqa licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.indoqa.cycle.plugin;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class ShortestCyclesTest {
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private static int getShortestLength(Iterable<List<Integer>> cycles, int node, int maxLength) {
+        int result = Integer.MAX_VALUE;
+
+        for (List<Integer> eachCycle : cycles) {
+            if (eachCycle.contains(node) && eachCycle.size() <= maxLength) {
+                result = Math.min(result, eachCycle.size());
+            }
+        }
+
+        return result;
+    }
+
+    private static boolean hasEdge(PackageGraph graph, int source, int target) {
+        for (int edge = graph.getStart(source); edge < graph.getEnd(source); edge++) {
+            if (graph.getTarget(edge) == target) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    private static List<ClassDependencies> toClassDependencies(PackageGraph graph) {
+        List<ClassDependencies> result = new ArrayList<>();
+
+        for (int node = 0; node < graph.getNodeCount(); node++) {
+            List<String> dependencies = new ArrayList<>();
+            for (int edge = graph.getStart(node); edge < graph.getEnd(node); edge++) {
+                dependencies.add(graph.getName(graph.getTarget(edge)) + ".X");
+            }
+            result.add(new ClassDependencies(graph.getName(node) + ".X", dependencies));
+        }
+
+        return result;
+    }
+
+    private static List<String> findCycles(CycleDetector cycleDetector) throws IOException {
+        List<String> result = new ArrayList<>();
+        cycleDetector.findPackageCycles(CycleBudget.DEFAULT, new CycleMetrics(), (cycle, detector) -> result.add(CycleBaseline.getKey(cycle)));
+        return result;
+    }
+
+    @Test
+    public void baselineRecordedWithShortestCyclesAcceptsAllCycles() throws IOException {
+        Random random = new Random(19);
+
+        for (int i = 0; i < 300; i++) {
+            PackageGraph graph = BruteForceCycles.createGraph(random, 2 + random.nextInt(6), random.nextInt(16));
+            List<ClassDependencies> classDependencies = toClassDependencies(graph);
+
+            CycleBaseline recordingBaseline = CycleBaseline.record();
+            CycleDetector recordingCycleDetector = new CycleDetector(classDependencies, null);
+            recordingCycleDetector.setBaseline(recordingBaseline);
+            findCycles(recordingCycleDetector);
+            Path baselineFile = this.temporaryFolder.newFile().toPath();
+            recordingBaseline.write(baselineFile);
+
+            CycleBaseline baseline = CycleBaseline.load(baselineFile);
+            CycleDetector cycleDetector = new CycleDetector(classDependencies, null);
+            cycleDetector.setBaseline(baseline);
+            assertEquals(List.of(), findCycles(cycleDetector));
+            assertEquals(Set.of(), baseline.getResolvedCycles());
+
+            // a new dependency within a strongly connected component must be reported
+            String source = BruteForceCycles.getName(random.nextInt(graph.getNodeCount()));
+            String target = BruteForceCycles.getName(random.nextInt(graph.getNodeCount()));
+            List<ClassDependencies> changedClassDependencies = new ArrayList<>(classDependencies);
+            changedClassDependencies.add(new ClassDependencies(source + ".Y", List.of(target + ".X")));
+            CycleDetector changedCycleDetector = new CycleDetector(changedClassDependencies, null);
+            changedCycleDetector.setBaseline(CycleBaseline.load(baselineFile));
+
+            int sourceNode = graph.getId(source);
+            int targetNode = graph.getId(target);
+            boolean newDependency = sourceNode != targetNode && !hasEdge(graph, sourceNode, targetNode);
+            assertEquals(newDependency && BruteForceCycles.reaches(graph, targetNode, sourceNode), !findCycles(changedCycleDetector).isEmpty());
+        }
+    }
+
+    @Test
+    public void findsShortestCycleThroughEachNode() {
+        Random random = new Random(5);
+
+        for (int i = 0; i < 500; i++) {
+            PackageGraph graph = BruteForceCycles.createGraph(random, 2 + random.nextInt(7), random.nextInt(20));
+            Set<List<Integer>> allCycles = BruteForceCycles.findAll(graph);
+            int maxLength = i % 3 == 0 ? 3 : Integer.MAX_VALUE;
+
+            ShortestCycles shortestCycles = new ShortestCycles(graph);
+            for (int[] eachComponent : StronglyConnectedComponents.find(graph)) {
+                if (eachComponent.length < 2) {
+                    continue;
+                }
+
+                List<List<Integer>> cycles = new ArrayList<>();
+                for (int[] eachCycle : shortestCycles.find(eachComponent, Integer.MAX_VALUE, maxLength, 0)) {
+                    List<Integer> cycle = BruteForceCycles.normalize(eachCycle);
+                    assertTrue(allCycles.contains(cycle));
+                    assertFalse(cycles.contains(cycle));
+                    cycles.add(cycle);
+                }
+
+                for (int eachNode : eachComponent) {
+                    assertEquals(getShortestLength(allCycles, eachNode, maxLength), getShortestLength(cycles, eachNode, maxLength));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void recordedBaselineHasNoResolvedCycles() throws IOException {
+        List<ClassDependencies> classDependencies = List.of(
+            new ClassDependencies("a.A", List.of("b.B")),
+            new ClassDependencies("b.B", List.of("a.A", "c.C")),
+            new ClassDependencies("c.C", List.of("a.A", "b.B")));
+
+        CycleBaseline recordingBaseline = CycleBaseline.record();
+        CycleDetector recordingCycleDetector = new CycleDetector(classDependencies, null);
+        recordingCycleDetector.setBaseline(recordingBaseline);
+        findCycles(recordingCycleDetector);
+        Path baselineFile = this.temporaryFolder.newFile().toPath();
+        recordingBaseline.write(baselineFile);
+        assertEquals(3, recordingBaseline.getCycleCount());
+
+        CycleBaseline baseline = CycleBaseline.load(baselineFile);
+        CycleDetector cycleDetector = new CycleDetector(classDependencies, null);
+        cycleDetector.setBaseline(baseline);
+
+        assertEquals(List.of(), findCycles(cycleDetector));
+        assertEquals(3, baseline.getMatchedCount());
+        assertEquals(Set.of(), baseline.getResolvedCycles());
+    }
+
+    @Test
+    public void reportsCycleGrownFromAcceptedCycles() throws IOException {
+        Path baselineFile = this.temporaryFolder.newFile().toPath();
+        Files.write(baselineFile, List.of("a -> b -> a", "b -> c -> b"), StandardCharsets.UTF_8);
+
+        CycleDetector cycleDetector = new CycleDetector(
+            List.of(
+                new ClassDependencies("a.A", List.of("b.B")),
+                new ClassDependencies("b.B", List.of("a.A", "c.C")),
+                new ClassDependencies("c.C", List.of("a.A", "b.B"))),
+            null);
+        cycleDetector.setBaseline(CycleBaseline.load(baselineFile));
+
+        assertEquals(List.of("a -> b -> c -> a"), findCycles(cycleDetector));
+    }
+}
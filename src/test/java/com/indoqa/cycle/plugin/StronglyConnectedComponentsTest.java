@@ -0,0 +1,74 @@
+/*
+ * Licensed to the Indoqa Software Design und Beratung GmbH (Indoqa) under
+ * one or more contributor license agreements. See the NOTICE file distributed
+ * with this work for additional information regarding copyright ownership.
+ * Indoqa licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.indoqa.cycle.plugin;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+public class StronglyConnectedComponentsTest {
+
+    @Test
+    public void findsMutuallyReachableNodes() {
+        Random random = new Random(1);
+
+        for (int i = 0; i < 500; i++) {
+            PackageGraph graph = BruteForceCycles.createGraph(random, 1 + random.nextInt(10), random.nextInt(25));
+            List<int[]> components = StronglyConnectedComponents.find(graph);
+
+            int[] componentIndexes = new int[graph.getNodeCount()];
+            int nodeCount = 0;
+            for (int componentIndex = 0; componentIndex < components.size(); componentIndex++) {
+                int[] component = components.get(componentIndex);
+                for (int j = 0; j < component.length; j++) {
+                    assertTrue(j == 0 || component[j - 1] < component[j]);
+                    componentIndexes[component[j]] = componentIndex;
+                }
+                nodeCount += component.length;
+            }
+            assertEquals(graph.getNodeCount(), nodeCount);
+
+            for (int source = 0; source < graph.getNodeCount(); source++) {
+                for (int target = 0; target < graph.getNodeCount(); target++) {
+                    boolean connected = BruteForceCycles.reaches(graph, source, target) && BruteForceCycles.reaches(graph, target, source);
+                    assertEquals(connected, componentIndexes[source] == componentIndexes[target]);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void findsDeepChain() {
+        PackageGraph.Builder builder = new PackageGraph.Builder();
+        int nodeCount = 100_000;
+        for (int i = 0; i < nodeCount; i++) {
+            builder.addEdge(String.valueOf(i), String.valueOf((i + 1) % nodeCount));
+        }
+
+        List<int[]> components = StronglyConnectedComponents.find(builder.build());
+
+        assertEquals(1, components.size());
+        assertEquals(nodeCount, components.get(0).length);
+        assertArrayEquals(new int[] {0, 1, 2}, Arrays.copyOf(components.get(0), 3));
+    }
+}